@@ -2,6 +2,7 @@ package com.example.spawnall;
 
 import com.example.spawnall.config.ModConfig;
 import com.example.spawnall.network.NetworkHandler;
+import com.example.spawnall.util.TickScheduler;
 import com.terraformersmc.modmenu.api.ConfigScreenFactory;
 import com.terraformersmc.modmenu.api.ModMenuApi;
 import net.fabricmc.api.ClientModInitializer;
@@ -9,6 +10,7 @@ import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
 import net.minecraft.text.Text;
@@ -23,6 +25,17 @@ public class SpawnerClient implements ClientModInitializer, ModMenuApi {
     private static KeyBinding toggleKey;
     private static boolean isMultiplayer = false;
 
+    // Multiplayer: server mengizinkan player ini mengubah mode (dari ConfigHashPayload)
+    private static boolean canPushConfig = true;
+
+    // lastUsedMode sebelum toggle K terakhir di multiplayer - dikembalikan kalau server menolak
+    private static Boolean modeBeforeToggle = null;
+
+    // Delay notifikasi join (20 tick = 1 detik)
+    private static final int SCAN_NOTICE_DELAY_TICKS = 80;
+    private static final int TIP_DELAY_TICKS = 20;
+    private static final int SYNC_NOTICE_DELAY_TICKS = 60;
+
     @Override
     public void onInitializeClient() {
         UniversalSpawnerMod.LOGGER.info("========================================");
@@ -48,6 +61,10 @@ public class SpawnerClient implements ClientModInitializer, ModMenuApi {
             // Detect if multiplayer or singleplayer
             isMultiplayer = !client.isInSingleplayer();
 
+            // Multiplayer: belum boleh toggle sampai server mengirim hash (EVENT 3)
+            canPushConfig = !isMultiplayer;
+            modeBeforeToggle = null;
+
             String env = isMultiplayer ? "MULTIPLAYER" : "SINGLEPLAYER";
             UniversalSpawnerMod.LOGGER.info("========================================");
             UniversalSpawnerMod.LOGGER.info("🌍 Environment: {}", env);
@@ -58,71 +75,9 @@ public class SpawnerClient implements ClientModInitializer, ModMenuApi {
             UniversalSpawnerMod.LOGGER.info("📋 Restoring last used mode: {}",
                     lastMode ? "CUSTOM" : "VANILLA");
 
-            // Hanya sync ke server jika multiplayer
+            // Multiplayer: tunggu hash config dari server (EVENT 3), server yang memutuskan
             if (isMultiplayer) {
-                // Tunggu sebentar untuk memastikan connection stable
-                client.execute(() -> {
-                    try {
-                        Thread.sleep(1000); // 1 second delay untuk stabilitas
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-
-                    // Send sync packet ke server dengan LAST USED MODE
-                    if (ClientPlayNetworking.canSend(NetworkHandler.SyncOnJoinPayload.ID)) {
-                        ClientPlayNetworking.send(
-                                new NetworkHandler.SyncOnJoinPayload(
-                                        ModConfig.isGlobalEnabled(),
-                                        lastMode, // NEW: Send last used mode
-                                        ModConfig.getMinSpawnDelay(),
-                                        ModConfig.getMaxSpawnDelay(),
-                                        ModConfig.getSpawnCount(),
-                                        ModConfig.getMaxNearbyEntities(),
-                                        ModConfig.getPlayerRange(),
-                                        ModConfig.getSpawnRange()
-                                )
-                        );
-
-                        UniversalSpawnerMod.LOGGER.info("========================================");
-                        UniversalSpawnerMod.LOGGER.info("📤 SENT JOIN SYNC to multiplayer server:");
-                        UniversalSpawnerMod.LOGGER.info("  Global Enabled: {}", ModConfig.isGlobalEnabled());
-                        UniversalSpawnerMod.LOGGER.info("  Restoring Mode: {}", lastMode ? "CUSTOM" : "VANILLA");
-                        UniversalSpawnerMod.LOGGER.info("  Min Delay: {} ticks", ModConfig.getMinSpawnDelay());
-                        UniversalSpawnerMod.LOGGER.info("  Max Delay: {} ticks", ModConfig.getMaxSpawnDelay());
-                        UniversalSpawnerMod.LOGGER.info("  Spawn Count: {}", ModConfig.getSpawnCount());
-                        UniversalSpawnerMod.LOGGER.info("  Max Nearby: {}", ModConfig.getMaxNearbyEntities());
-                        UniversalSpawnerMod.LOGGER.info("  Player Range: {}", ModConfig.getPlayerRange());
-                        UniversalSpawnerMod.LOGGER.info("  Spawn Range: {}", ModConfig.getSpawnRange());
-                        UniversalSpawnerMod.LOGGER.info("  This will restore your previous settings");
-                        UniversalSpawnerMod.LOGGER.info("========================================");
-
-                        // Send notification to player
-                        if (client.player != null) {
-                            String mode = lastMode ? "§aCUSTOM" : "§eVANILLA";
-                            client.player.sendMessage(
-                                    Text.literal("§6[Spawn All] §fRestored settings: " + mode),
-                                    false
-                            );
-
-                            // Info about existing spawners
-                            client.execute(() -> {
-                                try {
-                                    Thread.sleep(3000); // Wait for server to finish scanning
-                                    int spawnerCount = UniversalSpawnerMod.getRegistrySize();
-                                    if (spawnerCount > 0) {
-                                        client.player.sendMessage(
-                                                Text.literal("§6[Spawn All] §7Detected & configured " +
-                                                        spawnerCount + " spawner(s)"),
-                                                false
-                                        );
-                                    }
-                                } catch (InterruptedException e) {
-                                    Thread.currentThread().interrupt();
-                                }
-                            });
-                        }
-                    }
-                });
+                UniversalSpawnerMod.LOGGER.info("⏳ Waiting for server config hash...");
             } else {
                 // Singleplayer: Langsung set state dari last used mode
                 UniversalSpawnerMod.modEnabled = lastMode;
@@ -138,38 +93,42 @@ public class SpawnerClient implements ClientModInitializer, ModMenuApi {
                 UniversalSpawnerMod.LOGGER.info("========================================");
 
                 // Show info to player about existing spawners after scan completes
-                if (client.player != null) {
-                    client.execute(() -> {
-                        try {
-                            Thread.sleep(4000); // Wait for world to finish scanning
-                            int spawnerCount = UniversalSpawnerMod.getRegistrySize();
-
-                            String mode = lastMode ? "§aCUSTOM" : "§eVANILLA";
-
-                            if (spawnerCount > 0) {
-                                client.player.sendMessage(
-                                        Text.literal("§6[Spawn All] §7Detected " + spawnerCount +
-                                                " spawner(s) - Mode: " + mode),
-                                        false
-                                );
-                            }
-
-                            // Show tip for first time users (vanilla mode)
-                            if (!lastMode) {
-                                Thread.sleep(1000);
-                                client.player.sendMessage(
-                                        Text.literal("§6[Spawn All] §7Press §eK §7to enable fast spawning mode"),
-                                        false
-                                );
-                            }
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
+                // Wait for world to finish scanning (tick delay, tidak block render thread)
+                TickScheduler.CLIENT.schedule(SCAN_NOTICE_DELAY_TICKS, () -> {
+                    if (client.player == null) return;
+
+                    int spawnerCount = UniversalSpawnerMod.getRegistrySize();
+                    String mode = lastMode ? "§aCUSTOM" : "§eVANILLA";
+
+                    if (spawnerCount > 0) {
+                        client.player.sendMessage(
+                                Text.literal("§6[Spawn All] §7Detected " + spawnerCount +
+                                        " spawner(s) - Mode: " + mode),
+                                false
+                        );
+                    }
+                });
+
+                // Show tip for first time users (vanilla mode)
+                if (!lastMode) {
+                    TickScheduler.CLIENT.schedule(SCAN_NOTICE_DELAY_TICKS + TIP_DELAY_TICKS, () -> {
+                        if (client.player == null) return;
+
+                        client.player.sendMessage(
+                                Text.literal("§6[Spawn All] §7Press §eK §7to enable fast spawning mode"),
+                                false
+                        );
                     });
                 }
             }
         });
 
+        // Delayed notifications yang belum jalan tidak dibawa ke world berikutnya
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> TickScheduler.CLIENT.clear());
+
+        // Delayed tasks (notifikasi join) - dijalankan per client tick
+        ClientTickEvents.END_CLIENT_TICK.register(client -> TickScheduler.CLIENT.tick());
+
         // =====================================================
         // EVENT 2: Client Tick - Keybind Handler (Universal)
         // =====================================================
@@ -181,7 +140,19 @@ public class SpawnerClient implements ClientModInitializer, ModMenuApi {
                     ModConfig.isKeybindEnabled() &&
                     toggleKey.wasPressed()) {
 
+                // Multiplayer tanpa izin: server akan menolak - jangan toggle / simpan lastUsedMode
+                if (isMultiplayer && !canPushConfig) {
+                    client.player.sendMessage(
+                            Text.literal("§c[Spawn All] This server does not allow you to change the mode"),
+                            true
+                    );
+                    return;
+                }
+
                 // Toggle in-game state
+                if (isMultiplayer) {
+                    modeBeforeToggle = ModConfig.getLastUsedMode();
+                }
                 UniversalSpawnerMod.modEnabled = !UniversalSpawnerMod.modEnabled;
 
                 // NEW: Save last used mode to config
@@ -233,11 +204,102 @@ public class SpawnerClient implements ClientModInitializer, ModMenuApi {
             }
         });
 
+        // =====================================================
+        // EVENT 3: Config Hash dari server - push config hanya kalau beda
+        // =====================================================
+        ClientPlayNetworking.registerGlobalReceiver(NetworkHandler.ConfigHashPayload.ID, (payload, context) -> {
+            // Singleplayer: integrated server pakai config yang sama, tidak perlu sync
+            if (context.client().isInSingleplayer()) return;
+
+            // Dipakai keybind K: toggle lokal hanya kalau server akan menerimanya
+            canPushConfig = payload.canPush();
+
+            boolean lastMode = ModConfig.getLastUsedMode();
+            if (NetworkHandler.localConfigHash(lastMode) == payload.configHash()) {
+                UniversalSpawnerMod.modEnabled = lastMode;
+                UniversalSpawnerMod.LOGGER.info("✓ Config already in sync with server, no join sync needed");
+                return;
+            }
+
+            if (!payload.canPush()) {
+                // Toggle ditolak (mis. izin dicabut): server tetap di mode lama - lastUsedMode ikut dikembalikan
+                if (modeBeforeToggle != null && payload.serverMode() != lastMode) {
+                    ModConfig.setLastUsedMode(modeBeforeToggle);
+                }
+                modeBeforeToggle = null;
+
+                // Tidak boleh push: ikuti mode server supaya toggle K bekerja dari state yang benar
+                UniversalSpawnerMod.modEnabled = payload.serverMode();
+                UniversalSpawnerMod.LOGGER.info("ℹ Local config differs from server, but not permitted to push - using server mode: {}",
+                        payload.serverMode() ? "CUSTOM" : "VANILLA");
+                return;
+            }
+
+            UniversalSpawnerMod.modEnabled = lastMode;
+            sendJoinSync(context.client(), lastMode);
+        });
+
         UniversalSpawnerMod.LOGGER.info("✓ Client initialized");
         UniversalSpawnerMod.LOGGER.info("  Mode: Universal (SP + MP)");
         UniversalSpawnerMod.LOGGER.info("  Keybind: K (toggle)");
     }
 
+    /**
+     * HELPER: Kirim config lokal + last used mode ke server (satu snapshot config)
+     */
+    private static void sendJoinSync(MinecraftClient client, boolean lastMode) {
+        if (!ClientPlayNetworking.canSend(NetworkHandler.SyncOnJoinPayload.ID)) return;
+
+        ModConfig.Snapshot config = ModConfig.snapshot();
+        ClientPlayNetworking.send(
+                new NetworkHandler.SyncOnJoinPayload(
+                        config.globalEnabled(),
+                        lastMode, // NEW: Send last used mode
+                        config.minSpawnDelay(),
+                        config.maxSpawnDelay(),
+                        config.spawnCount(),
+                        config.maxNearbyEntities(),
+                        config.playerRange(),
+                        config.spawnRange()
+                )
+        );
+
+        UniversalSpawnerMod.LOGGER.info("========================================");
+        UniversalSpawnerMod.LOGGER.info("📤 SENT JOIN SYNC to multiplayer server (config hash differs):");
+        UniversalSpawnerMod.LOGGER.info("  Global Enabled: {}", config.globalEnabled());
+        UniversalSpawnerMod.LOGGER.info("  Restoring Mode: {}", lastMode ? "CUSTOM" : "VANILLA");
+        UniversalSpawnerMod.LOGGER.info("  Min Delay: {} ticks", config.minSpawnDelay());
+        UniversalSpawnerMod.LOGGER.info("  Max Delay: {} ticks", config.maxSpawnDelay());
+        UniversalSpawnerMod.LOGGER.info("  Spawn Count: {}", config.spawnCount());
+        UniversalSpawnerMod.LOGGER.info("  Max Nearby: {}", config.maxNearbyEntities());
+        UniversalSpawnerMod.LOGGER.info("  Player Range: {}", config.playerRange());
+        UniversalSpawnerMod.LOGGER.info("  Spawn Range: {}", config.spawnRange());
+        UniversalSpawnerMod.LOGGER.info("  This will restore your previous settings");
+        UniversalSpawnerMod.LOGGER.info("========================================");
+
+        // Send notification to player
+        if (client.player != null) {
+            String mode = lastMode ? "§aCUSTOM" : "§eVANILLA";
+            client.player.sendMessage(
+                    Text.literal("§6[Spawn All] §fRestored settings: " + mode),
+                    false
+            );
+
+            // Info about existing spawners
+            // Wait for server to finish scanning (tick delay, tidak block render thread)
+            TickScheduler.CLIENT.schedule(SYNC_NOTICE_DELAY_TICKS, () -> {
+                int spawnerCount = UniversalSpawnerMod.getRegistrySize();
+                if (spawnerCount > 0 && client.player != null) {
+                    client.player.sendMessage(
+                            Text.literal("§6[Spawn All] §7Detected & configured " +
+                                    spawnerCount + " spawner(s)"),
+                            false
+                    );
+                }
+            });
+        }
+    }
+
     @Override
     public ConfigScreenFactory<?> getModConfigScreenFactory() {
         return SpawnerConfigScreen::create;
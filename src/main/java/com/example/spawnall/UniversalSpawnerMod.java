@@ -1,34 +1,53 @@
 package com.example.spawnall;
 
+import com.example.spawnall.command.SpawnAllCommand;
 import com.example.spawnall.config.ModConfig;
+import com.example.spawnall.mixin.MobSpawnerLogicAccessor;
 import com.example.spawnall.network.NetworkHandler;
-import com.example.spawnall.util.SpawnerScanner;
+import com.example.spawnall.util.RegionSpawnerIndexer;
+import com.example.spawnall.util.ScanScheduler;
+import com.example.spawnall.util.SpawnerAttachments;
+import com.example.spawnall.util.SpawnerIndex;
+import com.example.spawnall.util.SpawnerIndexState;
+import com.example.spawnall.util.SpawnerMutationQueue;
+import com.example.spawnall.util.SpawnerNbtTemplates;
+import com.example.spawnall.util.SpawnerRegistry;
+import com.example.spawnall.util.SpawnerUpdater;
+import com.example.spawnall.util.TickScheduler;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
 import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.entity.MobSpawnerBlockEntity;
+import net.minecraft.block.spawner.MobSpawnerEntry;
 import net.minecraft.entity.EntityType;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.SpawnEggItem;
 import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
+import net.minecraft.util.collection.DataPool;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.world.World;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 public class UniversalSpawnerMod implements ModInitializer {
     public static final String MOD_ID = "spawn-all";
@@ -37,14 +56,8 @@ public class UniversalSpawnerMod implements ModInitializer {
     // In-game toggle state (synchronized across server)
     public static volatile boolean modEnabled = true;
 
-    // Track spawner positions dan entity types (thread-safe untuk multiplayer)
-    private static final Map<BlockPos, String> SPAWNER_REGISTRY = new ConcurrentHashMap<>();
-
-    // Flag untuk request update spawners
-    private static volatile boolean updateRequested = false;
-
-    // Flag untuk prevent multiple scans per world
-    private static final Map<ServerWorld, Boolean> WORLD_SCANNED = new ConcurrentHashMap<>();
+    // Delay info spawner setelah player join (20 tick = 1 detik)
+    private static final int JOIN_NOTICE_DELAY_TICKS = 40;
 
     @Override
     public void onInitialize() {
@@ -71,86 +84,89 @@ public class UniversalSpawnerMod implements ModInitializer {
         // Register network packets (hanya untuk multiplayer)
         NetworkHandler.registerPackets();
 
+        // Register admin commands (/spawnall)
+        SpawnAllCommand.register();
+
+        // Attachment config yang terakhir di-apply (disimpan di block entity spawner)
+        SpawnerAttachments.register();
+
         // =====================================================
-        // EVENT 0: World Load - SCAN EXISTING SPAWNERS
+        // EVENT 0: Chunk Load/Unload - INCREMENTAL SPAWNER INDEX
         // =====================================================
+        // Setiap chunk di-inspect sekali per load (termasuk spawn chunks saat startup
+        // dan chunks di sekitar player yang join), jadi bulk scan tidak diperlukan lagi
+        ServerChunkEvents.CHUNK_LOAD.register(SpawnerIndex::onChunkLoad);
+        ServerChunkEvents.CHUNK_UNLOAD.register(SpawnerIndex::onChunkUnload);
+
+        // Spawner yang di-load dengan config lama: reconcile saat chunk di-inspect (cocok = gratis)
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
+            if (blockEntity instanceof MobSpawnerBlockEntity spawnerEntity) {
+                SpawnerIndex.onSpawnerLoad(world, spawnerEntity);
+            }
+        });
+
+        // Spawner index yang disimpan (data/spawnall_index.dat) - di-load saat world di-load
+        ServerWorldEvents.LOAD.register((server, world) -> SpawnerIndexState.get(world));
+
+        // Background index untuk chunk yang belum loaded (offline index / region files)
         ServerLifecycleEvents.SERVER_STARTED.register(server -> {
-            // Scan semua worlds (overworld, nether, end)
-            server.getWorlds().forEach(world -> {
-                LOGGER.info("========================================");
-                LOGGER.info("🌍 World loaded: {}", world.getRegistryKey().getValue());
-                LOGGER.info("  Starting spawner detection...");
-                LOGGER.info("========================================");
-
-                // Jalankan scan dengan delay untuk memastikan chunks loaded
-                server.execute(() -> {
-                    try {
-                        Thread.sleep(3000); // 3 second delay
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
+            Set<String> preIndexed = RegionSpawnerIndexer.loadOfflineIndex(server);
 
-                    scanAndRegisterSpawners(world);
+            if (ModConfig.isRegionIndexing()) {
+                server.getWorlds().forEach(world -> {
+                    // Sudah pernah di-index sampai selesai di sesi sebelumnya - cukup index yang disimpan
+                    if (SpawnerIndexState.get(world).isRegionIndexed()) {
+                        return;
+                    }
+                    if (!preIndexed.contains(world.getRegistryKey().getValue().toString())) {
+                        RegionSpawnerIndexer.start(world);
+                    }
                 });
-            });
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> RegionSpawnerIndexer.stop());
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            SpawnerIndex.clear();
+            SpawnerMutationQueue.clear();
+            ScanScheduler.clear();
+            SpawnerUpdater.clear();
+            SpawnerRegistry.clear();
+            TickScheduler.SERVER.clear();
+
+            // Config yang masih pending (write-behind) ditulis sekarang
+            ModConfig.flush();
         });
 
+        // Delayed tasks (pengganti Thread.sleep di server thread)
+        ServerTickEvents.END_SERVER_TICK.register(server -> TickScheduler.SERVER.tick());
+
+        // Tick-budgeted scans (selalu di server thread)
+        ServerTickEvents.END_SERVER_TICK.register(ScanScheduler::tick);
+
         // =====================================================
-        // EVENT 0.5: Player Join - RESCAN untuk player baru
+        // EVENT 0.5: Player Join - Info spawner yang sudah ter-index
         // =====================================================
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
             ServerPlayerEntity player = handler.getPlayer();
-            ServerWorld world = player.getServerWorld();
-
-            LOGGER.info("========================================");
-            LOGGER.info("👤 Player joined: {}", player.getName().getString());
-            LOGGER.info("  Triggering spawner rescan around player...");
-            LOGGER.info("========================================");
-
-            // Delay untuk memastikan player fully loaded
-            server.execute(() -> {
-                try {
-                    Thread.sleep(2000); // 2 second delay
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-
-                // Scan area around player (lebih targeted)
-                BlockPos playerPos = player.getBlockPos();
-                SpawnerScanner.scanAreaAroundPlayer(world, playerPos, 15).thenAccept(foundSpawners -> {
-                    if (!foundSpawners.isEmpty()) {
-                        // Register spawners baru yang ditemukan
-                        int newSpawners = 0;
-                        for (Map.Entry<BlockPos, String> entry : foundSpawners.entrySet()) {
-                            if (SPAWNER_REGISTRY.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
-                                newSpawners++;
-                            }
-                        }
-
-                        if (newSpawners > 0) {
-                            LOGGER.info("✓ Found {} new spawner(s) around player", newSpawners);
 
-                            // Update spawners dengan config yang tersimpan (last mode)
-                            for (Map.Entry<BlockPos, String> entry : foundSpawners.entrySet()) {
-                                BlockPos pos = entry.getKey();
-                                String entityId = entry.getValue();
+            LOGGER.info("👤 Player joined: {} ({} spawner(s) indexed)",
+                    player.getName().getString(), SpawnerRegistry.size());
 
-                                if (world.getBlockEntity(pos) instanceof MobSpawnerBlockEntity spawnerEntity) {
-                                    configureSpawner(world, pos, spawnerEntity, entityId);
-                                }
-                            }
-                        }
+            // Handshake: client hanya push config kalau boleh DAN hash-nya beda
+            NetworkHandler.sendConfigHash(player);
 
-                        // Send notification to player dengan mode yang tersimpan
-                        int totalSpawners = SPAWNER_REGISTRY.size();
-                        String mode = isModEnabled() ? "§aCUSTOM" : "§eVANILLA";
-                        player.sendMessage(
-                                Text.literal("§6[Spawn All] §7Detected " + totalSpawners +
-                                        " spawner(s) - Mode: " + mode),
-                                false
-                        );
-                    }
-                });
+            // Info setelah chunk di sekitar player ter-index (tick delay, tidak block server thread)
+            TickScheduler.SERVER.schedule(JOIN_NOTICE_DELAY_TICKS, () -> {
+                int totalSpawners = SpawnerRegistry.size();
+                if (totalSpawners > 0 && !player.isDisconnected()) {
+                    String mode = isModEnabled() ? "§aCUSTOM" : "§eVANILLA";
+                    player.sendMessage(
+                            Text.literal("§6[Spawn All] §7Detected " + totalSpawners +
+                                    " spawner(s) - Mode: " + mode),
+                            false
+                    );
+                }
             });
         });
 
@@ -174,7 +190,7 @@ public class UniversalSpawnerMod implements ModInitializer {
                         String entityId = EntityType.getId(entityType).toString();
 
                         // Register spawner (immutable pos)
-                        SPAWNER_REGISTRY.put(pos.toImmutable(), entityId);
+                        SpawnerRegistry.put(world.getRegistryKey(), pos, entityId);
 
                         // Configure spawner dengan mode saat ini (last used mode)
                         configureSpawner(world, pos, spawnerEntity, entityId);
@@ -221,7 +237,7 @@ public class UniversalSpawnerMod implements ModInitializer {
         PlayerBlockBreakEvents.BEFORE.register((world, player, pos, state, blockEntity) -> {
             if (!world.isClient && state.isOf(Blocks.SPAWNER)) {
                 // Hapus dari registry
-                String removed = SPAWNER_REGISTRY.remove(pos.toImmutable());
+                String removed = SpawnerRegistry.remove(world.getRegistryKey(), pos);
                 if (removed != null) {
                     LOGGER.info("🗑 Spawner removed from registry at {} by {} (was: {})",
                             pos.toShortString(),
@@ -233,242 +249,157 @@ public class UniversalSpawnerMod implements ModInitializer {
         });
 
         // =====================================================
-        // EVENT 3: SERVER TICK - Update spawners yang di-request
+        // EVENT 3: WORLD TICK - Inspect chunks yang baru di-load
         // =====================================================
-        ServerTickEvents.END_WORLD_TICK.register(world -> {
-            if (updateRequested && world instanceof ServerWorld serverWorld) {
-                updateRequested = false; // Reset flag
-
-                String env = isSingleplayer(world) ? "SINGLEPLAYER" : "MULTIPLAYER";
-
-                LOGGER.info("========================================");
-                LOGGER.info("🔄 SERVER TICK [{}]: Updating spawners...", env);
-                LOGGER.info("  World: {}", serverWorld.getRegistryKey().getValue());
-                LOGGER.info("  Total spawners: {}", SPAWNER_REGISTRY.size());
-                LOGGER.info("  New mode: {}", (isModEnabled() ? "CUSTOM" : "VANILLA"));
-                LOGGER.info("========================================");
-
-                int updated = 0;
-                int failed = 0;
-                int cleaned = 0;
-
-                for (Map.Entry<BlockPos, String> entry : SPAWNER_REGISTRY.entrySet()) {
-                    BlockPos pos = entry.getKey();
-                    String entityId = entry.getValue();
-
-                    // Cek apakah spawner masih ada
-                    if (serverWorld.getBlockState(pos).isOf(Blocks.SPAWNER)) {
-                        if (serverWorld.getBlockEntity(pos) instanceof MobSpawnerBlockEntity spawnerEntity) {
-                            try {
-                                configureSpawner(serverWorld, pos, spawnerEntity, entityId);
-                                updated++;
-                            } catch (Exception e) {
-                                LOGGER.error("Failed to update spawner at {}: {}", pos, e.getMessage());
-                                failed++;
-                            }
-                        }
-                    } else {
-                        // Spawner tidak ada lagi, hapus dari registry
-                        SPAWNER_REGISTRY.remove(pos);
-                        cleaned++;
-                    }
-                }
+        // Mutasi dari worker thread (region indexer) - sebelum index chunk baru
+        ServerTickEvents.END_WORLD_TICK.register(SpawnerMutationQueue::drain);
 
-                LOGGER.info("========================================");
-                LOGGER.info("✓ SERVER UPDATE COMPLETE [{}]:", env);
-                LOGGER.info("  Updated: {}", updated);
-                LOGGER.info("  Failed: {}", failed);
-                LOGGER.info("  Cleaned: {}", cleaned);
-                LOGGER.info("========================================");
-
-                // Broadcast update (hanya di multiplayer)
-                if (!isSingleplayer(world) && updated > 0) {
-                    serverWorld.getServer().getPlayerManager().broadcast(
-                            Text.literal("§6[Spawn All] §7Updated " + updated + " spawner(s) to " +
-                                    (isModEnabled() ? "§aCUSTOM" : "§eVANILLA") + " §7mode"),
-                            false
-                    );
-                }
-            }
-        });
+        ServerTickEvents.END_WORLD_TICK.register(SpawnerIndex::tick);
+
+        // Tick-budgeted spawner reconfiguration per world (requestSpawnerUpdate)
+        ServerTickEvents.END_WORLD_TICK.register(SpawnerUpdater::tick);
 
         LOGGER.info("✓ Mod initialized");
         LOGGER.info("  Mode: Universal (Single + Multi)");
-        LOGGER.info("  Registry: Thread-safe ConcurrentHashMap");
+        LOGGER.info("  Registry: Per-dimension chunk buckets");
+        LOGGER.info("  Detection: Event-driven chunk index");
         LOGGER.info("  Networking: Enabled for multiplayer");
     }
 
     /**
-     * HELPER: Scan dan register semua spawners di world
+     * HELPER: Register spawner hasil scan/index dan configure yang baru
+     * @return jumlah spawner yang sebelumnya belum ada di registry
      */
-    private static void scanAndRegisterSpawners(ServerWorld world) {
-        // Prevent duplicate scans
-        if (WORLD_SCANNED.getOrDefault(world, false)) {
-            LOGGER.info("⏭ World already scanned, skipping...");
-            return;
-        }
+    public static int registerFoundSpawners(ServerWorld world, Map<BlockPos, String> foundSpawners) {
+        RegistryKey<World> dimension = world.getRegistryKey();
+        int newSpawners = 0;
 
-        WORLD_SCANNED.put(world, true);
-
-        SpawnerScanner.scanLoadedChunks(world).thenAccept(foundSpawners -> {
-            if (!foundSpawners.isEmpty()) {
-                // Register semua spawner yang ditemukan
-                SPAWNER_REGISTRY.putAll(foundSpawners);
-
-                LOGGER.info("========================================");
-                LOGGER.info("✓ EXISTING SPAWNERS DETECTED");
-                LOGGER.info("  World: {}", world.getRegistryKey().getValue());
-                LOGGER.info("  Total found: {}", foundSpawners.size());
-                LOGGER.info("  Applying saved config...");
-                LOGGER.info("  Restored Mode: {}", isModEnabled() ? "CUSTOM" : "VANILLA");
-                if (!isModEnabled()) {
-                    LOGGER.info("  💡 Spawners will use vanilla behavior (press K to enable custom mode)");
-                }
-                LOGGER.info("========================================");
+        for (Map.Entry<BlockPos, String> entry : foundSpawners.entrySet()) {
+            BlockPos pos = entry.getKey();
+            String entityId = entry.getValue();
 
-                // Update semua spawner dengan config yang tersimpan (last mode)
-                int successCount = 0;
-                for (Map.Entry<BlockPos, String> entry : foundSpawners.entrySet()) {
-                    BlockPos pos = entry.getKey();
-                    String entityId = entry.getValue();
+            if (!SpawnerRegistry.add(dimension, pos, entityId)) {
+                continue; // Sudah dikenal - pending di-reconcile per chunk (SpawnerUpdater.reconcileChunk)
+            }
+            newSpawners++;
 
-                    try {
-                        if (world.getBlockEntity(pos) instanceof MobSpawnerBlockEntity spawnerEntity) {
-                            configureSpawner(world, pos, spawnerEntity, entityId);
-                            successCount++;
-                        }
-                    } catch (Exception e) {
-                        LOGGER.error("Failed to configure spawner at {}: {}", pos, e.getMessage());
-                    }
+            try {
+                if (world.getBlockEntity(pos) instanceof MobSpawnerBlockEntity spawnerEntity) {
+                    // Apply saved config (last used mode)
+                    configureSpawner(world, pos, spawnerEntity, entityId);
                 }
+            } catch (Exception e) {
+                LOGGER.error("Failed to configure spawner at {}: {}", pos, e.getMessage());
+            }
+        }
+
+        return newSpawners;
+    }
 
-                LOGGER.info("========================================");
-                LOGGER.info("✓ ALL EXISTING SPAWNERS UPDATED");
-                LOGGER.info("  Successfully configured: {}/{}", successCount, foundSpawners.size());
-                LOGGER.info("  Mode applied: {}", isModEnabled() ? "CUSTOM" : "VANILLA");
-                LOGGER.info("  Config source: spawn-all.json (last used mode)");
-                LOGGER.info("========================================");
-            } else {
-                LOGGER.info("⏹ No existing spawners found in loaded chunks");
+    /**
+     * HELPER: Register spawner dari region indexer (chunk belum tentu loaded)
+     * Chunk yang tidak loaded ditandai pending dan di-configure saat chunk di-load.
+     */
+    public static void registerIndexedSpawners(ServerWorld world, Map<BlockPos, String> foundSpawners) {
+        RegistryKey<World> dimension = world.getRegistryKey();
+        int generation = SpawnerUpdater.getGeneration();
+        LongSet loadedChunks = new LongOpenHashSet();
+        int newSpawners = 0;
+
+        for (Map.Entry<BlockPos, String> entry : foundSpawners.entrySet()) {
+            BlockPos pos = entry.getKey();
+            if (SpawnerRegistry.add(dimension, pos, entry.getValue())) {
+                SpawnerRegistry.markPending(dimension, pos, generation);
+                newSpawners++;
+
+                if (world.isChunkLoaded(ChunkSectionPos.getSectionCoord(pos.getX()),
+                        ChunkSectionPos.getSectionCoord(pos.getZ()))) {
+                    loadedChunks.add(ChunkPos.toLong(pos));
+                }
             }
-        });
+        }
+
+        // Chunk yang sudah loaded tidak akan memicu chunk load event lagi - reconcile sekarang
+        for (long chunkKey : loadedChunks) {
+            SpawnerUpdater.reconcileChunk(world, chunkKey);
+        }
+
+        if (newSpawners > 0) {
+            LOGGER.debug("🗺 Registered {} spawner(s) from region files in {}",
+                    newSpawners, world.getRegistryKey().getValue());
+        }
     }
 
     /**
      * Configure spawner dengan mode yang aktif
      * WORKS IN BOTH SINGLEPLAYER AND MULTIPLAYER
+     * @return false kalau spawner sudah dikonfigurasi persis sama (fingerprint cocok) dan di-skip
      */
-    public static void configureSpawner(World world, BlockPos pos, MobSpawnerBlockEntity spawnerEntity, String entityId) {
+    public static boolean configureSpawner(World world, BlockPos pos, MobSpawnerBlockEntity spawnerEntity, String entityId) {
         // Cek mod status (global + in-game toggle) - menggunakan last used mode
         boolean isModEnabled = ModConfig.isGlobalEnabled() && modEnabled;
 
+        // Idempotent: skip kalau mode + parameter + entity ID sama dengan apply terakhir
+        // (fingerprint disimpan di block entity, jadi tetap berlaku setelah restart)
+        int fingerprint = SpawnerNbtTemplates.fingerprint(isModEnabled, entityId);
+        if (SpawnerAttachments.isApplied(spawnerEntity, fingerprint)) {
+            return false;
+        }
+
         String env = isSingleplayer(world) ? "SP" : "MP";
         LOGGER.debug("🔧 [{}] Configuring spawner at {}: {} (Mode: {})",
                 env, pos.toShortString(), entityId, (isModEnabled ? "CUSTOM" : "VANILLA"));
 
-        // Buat entity NBT
-        NbtCompound entityNbt = new NbtCompound();
-        entityNbt.putString("id", entityId);
-
-        // Buat spawner NBT
-        NbtCompound spawnerNbt = new NbtCompound();
-
-        // SpawnData
-        NbtCompound spawnData = new NbtCompound();
-        spawnData.put("entity", entityNbt);
-
-        if (isModEnabled) {
-            // ============================================
-            // MODE: CUSTOM (MOD ENABLED)
-            // ============================================
-
-            // CUSTOM SPAWN RULES
-            NbtCompound customSpawnRules = new NbtCompound();
-
-            NbtCompound blockLightLimit = new NbtCompound();
-            blockLightLimit.putInt("min_inclusive", 0);
-            blockLightLimit.putInt("max_inclusive", 15);
-            customSpawnRules.put("block_light_limit", blockLightLimit);
-
-            NbtCompound skyLightLimit = new NbtCompound();
-            skyLightLimit.putInt("min_inclusive", 0);
-            skyLightLimit.putInt("max_inclusive", 15);
-            customSpawnRules.put("sky_light_limit", skyLightLimit);
-
-            spawnData.put("custom_spawn_rules", customSpawnRules);
-
-            // SpawnPotentials dengan custom rules
-            NbtList potentials = new NbtList();
-            NbtCompound potential = new NbtCompound();
-            potential.putInt("weight", 1);
-
-            NbtCompound potentialData = new NbtCompound();
-            potentialData.put("entity", entityNbt.copy());
-            potentialData.put("custom_spawn_rules", customSpawnRules.copy());
-            potential.put("data", potentialData);
-
-            potentials.add(potential);
-            spawnerNbt.put("SpawnPotentials", potentials);
-
-            // CUSTOM PARAMETERS (dari config)
-            int minDelay = ModConfig.getMinSpawnDelay();
-            int maxDelay = ModConfig.getMaxSpawnDelay();
-            int spawnCount = ModConfig.getSpawnCount();
-            int maxNearby = ModConfig.getMaxNearbyEntities();
-            int playerRange = ModConfig.getPlayerRange();
-            int spawnRange = ModConfig.getSpawnRange();
-
-            spawnerNbt.putShort("Delay", (short)minDelay);
-            spawnerNbt.putShort("MinSpawnDelay", (short)minDelay);
-            spawnerNbt.putShort("MaxSpawnDelay", (short)maxDelay);
-            spawnerNbt.putShort("SpawnCount", (short)spawnCount);
-            spawnerNbt.putShort("MaxNearbyEntities", (short)maxNearby);
-            spawnerNbt.putShort("RequiredPlayerRange", (short)playerRange);
-            spawnerNbt.putShort("SpawnRange", (short)spawnRange);
-
-            LOGGER.debug("  ⚙ CUSTOM: {}-{}s delay, {} mobs, {} range",
-                    minDelay/20.0f, maxDelay/20.0f, spawnCount, playerRange);
-
-        } else {
-            // ============================================
-            // MODE: VANILLA (MOD DISABLED)
-            // ============================================
-
-            // SpawnPotentials vanilla (NO custom rules)
-            NbtList potentials = new NbtList();
-            NbtCompound potential = new NbtCompound();
-            potential.putInt("weight", 1);
-
-            NbtCompound potentialData = new NbtCompound();
-            potentialData.put("entity", entityNbt.copy());
-            potential.put("data", potentialData);
-
-            potentials.add(potential);
-            spawnerNbt.put("SpawnPotentials", potentials);
-
-            // VANILLA PARAMETERS
-            spawnerNbt.putShort("Delay", (short)20);
-            spawnerNbt.putShort("MinSpawnDelay", (short)200);
-            spawnerNbt.putShort("MaxSpawnDelay", (short)800);
-            spawnerNbt.putShort("SpawnCount", (short)4);
-            spawnerNbt.putShort("MaxNearbyEntities", (short)6);
-            spawnerNbt.putShort("RequiredPlayerRange", (short)16);
-            spawnerNbt.putShort("SpawnRange", (short)4);
-
-            LOGGER.debug("  ⚙ VANILLA: 10-40s delay, 4 mobs, 16 range");
-        }
-
-        spawnerNbt.put("SpawnData", spawnData);
-
-        // Apply NBT ke spawner (thread-safe)
-        synchronized (spawnerEntity) {
+        // Hanya dari server thread (mutasi dari worker lewat SpawnerMutationQueue), tanpa lock
+        // Fast path: set field MobSpawnerLogic langsung, fallback ke NBT kalau gagal
+        if (!ModConfig.isDirectApply() || !applyDirect(spawnerEntity, isModEnabled, entityId)) {
+            // Template per mode sudah di-compile, tinggal ambil berdasarkan entity ID
+            NbtCompound spawnerNbt = SpawnerNbtTemplates.get(isModEnabled, entityId);
             spawnerEntity.read(spawnerNbt, world.getRegistryManager());
-            spawnerEntity.markDirty();
         }
 
-        // Force block update
+        // Set SETELAH read() - NBT template tidak membawa attachment
+        SpawnerAttachments.setApplied(spawnerEntity, SpawnerUpdater.getGeneration(), fingerprint);
+        spawnerEntity.markDirty();
+
+        // Force block update - di server, ChunkHolder sudah menggabungkan update per chunk
+        // dan mengirim block entity update sekali per tick ke player yang melihat chunk itu
         BlockState state = world.getBlockState(pos);
         world.updateListeners(pos, state, state, 3);
+        return true;
+    }
+
+    /**
+     * HELPER: Apply template langsung ke MobSpawnerLogic (tanpa NBT round-trip)
+     * Custom rules di-share dari SpawnData yang sudah di-decode; entity NBT di-copy per spawner
+     * karena vanilla bisa memodifikasinya (mis. setEntityId).
+     * @return false kalau SpawnData template tidak tersedia (pakai NBT path)
+     */
+    private static boolean applyDirect(MobSpawnerBlockEntity spawnerEntity, boolean customMode, String entityId) {
+        MobSpawnerEntry shared = SpawnerNbtTemplates.getSpawnEntry(customMode, entityId);
+        if (shared == null) {
+            return false;
+        }
+
+        MobSpawnerEntry spawnEntry = new MobSpawnerEntry(shared.getNbt().copy(), shared.getCustomSpawnRules(), shared.getEquipment());
+        SpawnerNbtTemplates.Parameters parameters = SpawnerNbtTemplates.getParameters(customMode);
+
+        try {
+            MobSpawnerLogicAccessor logic = (MobSpawnerLogicAccessor) spawnerEntity.getLogic();
+            logic.spawnall$setSpawnPotentials(DataPool.<MobSpawnerEntry>builder().add(spawnEntry, 1).build());
+            logic.spawnall$setSpawnEntry(spawnEntry);
+            logic.spawnall$setSpawnDelay(parameters.delay());
+            logic.spawnall$setMinSpawnDelay(parameters.minSpawnDelay());
+            logic.spawnall$setMaxSpawnDelay(parameters.maxSpawnDelay());
+            logic.spawnall$setSpawnCount(parameters.spawnCount());
+            logic.spawnall$setMaxNearbyEntities(parameters.maxNearbyEntities());
+            logic.spawnall$setRequiredPlayerRange(parameters.requiredPlayerRange());
+            logic.spawnall$setSpawnRange(parameters.spawnRange());
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.debug("Direct apply failed, falling back to NBT: {}", e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -476,8 +407,8 @@ public class UniversalSpawnerMod implements ModInitializer {
      * WORKS IN BOTH SINGLEPLAYER AND MULTIPLAYER
      */
     public static void requestSpawnerUpdate() {
-        updateRequested = true;
-        LOGGER.info("🔄 Spawner update REQUESTED (will process on next server tick)");
+        int generation = SpawnerUpdater.request();
+        LOGGER.info("🔄 Spawner update #{} REQUESTED (will process over the next server ticks)", generation);
     }
 
     /**
@@ -489,14 +420,10 @@ public class UniversalSpawnerMod implements ModInitializer {
     }
 
     /**
-     * Get registry info (thread-safe copy)
+     * Total spawner di registry, semua dimension (thread-safe)
      */
-    public static Map<BlockPos, String> getSpawnerRegistry() {
-        return new HashMap<>(SPAWNER_REGISTRY);
-    }
-
     public static int getRegistrySize() {
-        return SPAWNER_REGISTRY.size();
+        return SpawnerRegistry.size();
     }
 
     public static boolean isModEnabled() {
@@ -0,0 +1,103 @@
+package com.example.spawnall.command;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import com.example.spawnall.util.ScanScheduler;
+import com.example.spawnall.util.SpawnerScanner;
+import com.mojang.brigadier.context.CommandContext;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.command.argument.BlockPosArgumentType;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin commands: /spawnall ...
+ * Butuh permission level 2 (op)
+ */
+public class SpawnAllCommand {
+
+    /**
+     * Register semua command
+     */
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                dispatcher.register(CommandManager.literal("spawnall")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .then(CommandManager.literal("rescan")
+                                .executes(SpawnAllCommand::rescan))
+                        .then(CommandManager.literal("scanregion")
+                                .then(CommandManager.argument("from", BlockPosArgumentType.blockPos())
+                                        .then(CommandManager.argument("to", BlockPosArgumentType.blockPos())
+                                                .executes(SpawnAllCommand::scanRegion))))
+                )
+        );
+    }
+
+    // =====================================================
+    // /spawnall rescan - Full multi-layer scan (tick-budgeted)
+    // =====================================================
+    private static int rescan(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        ServerWorld world = source.getWorld();
+
+        if (ScanScheduler.isBusy()) {
+            source.sendError(Text.literal("§c[Spawn All] A scan is already running"));
+            return 0;
+        }
+
+        source.sendFeedback(() -> Text.literal("§6[Spawn All] §7Rescanning loaded chunks..."), true);
+
+        SpawnerScanner.scanLoadedChunks(world, percent -> {
+            if (percent < 100) {
+                source.sendFeedback(() -> Text.literal("§6[Spawn All] §7Scan progress: " + percent + "%"), false);
+            }
+        }).thenAccept(foundSpawners -> {
+            // Future di-complete di server thread oleh ScanScheduler
+            int newSpawners = UniversalSpawnerMod.registerFoundSpawners(world, foundSpawners);
+            source.sendFeedback(() -> Text.literal("§6[Spawn All] §7Scan done: " + foundSpawners.size() +
+                    " spawner(s), " + newSpawners + " new"), true);
+        });
+
+        return 1;
+    }
+
+    // =====================================================
+    // /spawnall scanregion <from> <to> - Cuboid scan (tick-budgeted)
+    // =====================================================
+    private static int scanRegion(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        ServerWorld world = source.getWorld();
+        BlockPos from = BlockPosArgumentType.getBlockPos(context, "from");
+        BlockPos to = BlockPosArgumentType.getBlockPos(context, "to");
+
+        // Batasi area sebelum list chunk dibuat di server thread
+        long chunkCount = SpawnerScanner.regionChunkCount(from, to);
+        if (chunkCount > SpawnerScanner.MAX_REGION_SCAN_CHUNKS) {
+            source.sendError(Text.literal("§c[Spawn All] Region too large: " + chunkCount +
+                    " chunks (max " + SpawnerScanner.MAX_REGION_SCAN_CHUNKS + ")"));
+            return 0;
+        }
+
+        source.sendFeedback(() -> Text.literal("§6[Spawn All] §7Scanning region " +
+                from.toShortString() + " -> " + to.toShortString() + "..."), true);
+
+        Map<BlockPos, String> foundSpawners = new HashMap<>();
+
+        SpawnerScanner.scanRegionAsync(world, from, to, foundSpawners::put, percent -> {
+            if (percent < 100) {
+                source.sendFeedback(() -> Text.literal("§6[Spawn All] §7Region scan: " + percent + "%"), false);
+            }
+        }).thenAccept(ignored -> {
+            int newSpawners = UniversalSpawnerMod.registerFoundSpawners(world, foundSpawners);
+            source.sendFeedback(() -> Text.literal("§6[Spawn All] §7Region scan done: " + foundSpawners.size() +
+                    " spawner(s), " + newSpawners + " new"), true);
+        });
+
+        return 1;
+    }
+}
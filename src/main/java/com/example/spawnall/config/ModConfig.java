@@ -7,12 +7,30 @@ import net.fabricmc.loader.api.FabricLoader;
 
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Config manager untuk Universal Spawner Mod
  * WITH persistent mode state
+ *
+ * State aktif = Snapshot immutable di balik satu volatile reference (lock-free read,
+ * selalu konsisten). Perubahan lewat update(builder -> ...) - banyak field sekaligus
+ * di-publish atomic dengan version baru. Field public di class ini hanya format JSON.
+ *
+ * Save bersifat write-behind: setter hanya menandai config dirty, file ditulis
+ * oleh background thread setelah SAVE_DELAY_MS (beberapa perubahan = satu write),
+ * lewat temp file + atomic rename. Tidak ada disk I/O di server / render thread.
  */
 public class ModConfig {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
@@ -21,8 +39,25 @@ public class ModConfig {
             "spawn-all.json"
     );
 
+    // Debounce write-behind: perubahan dalam jendela ini digabung jadi satu write
+    private static final long SAVE_DELAY_MS = 500;
+
+    private static final ScheduledExecutorService SAVE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SpawnAll-ConfigSaver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // true = ada perubahan yang belum ditulis (dan flush sudah dijadwalkan)
+    private static final AtomicBoolean SAVE_PENDING = new AtomicBoolean(false);
+
+    static {
+        // Pastikan perubahan terakhir tertulis walaupun game ditutup sebelum debounce selesai
+        Runtime.getRuntime().addShutdownHook(new Thread(ModConfig::flush, "SpawnAll-ConfigFlush"));
+    }
+
     // =====================================================
-    // CONFIG FIELDS (Persistent)
+    // CONFIG FIELDS (Persistent - format file JSON)
     // =====================================================
 
     // Master toggle - enable/disable custom mode
@@ -45,11 +80,182 @@ public class ModConfig {
     public int playerRange = 32;        // blocks
     public int spawnRange = 5;          // blocks
 
+    // Strategi scan spawner: BLOCK_ENTITIES (default, cepat) atau BLOCK_SWEEP
+    public String scanStrategy = "BLOCK_ENTITIES";
+
+    // Budget waktu scan per server tick (microseconds)
+    public int scanBudgetMicros = 2000;
+
+    // Budget waktu reconfigure spawner per server tick (microseconds)
+    public int updateBudgetMicros = 2000;
+
+    // Apply config langsung ke field MobSpawnerLogic (false = selalu lewat NBT)
+    public boolean directApply = true;
+
+    // Index spawner dari region files (chunk yang belum loaded) saat server start
+    public boolean regionIndexing = true;
+
+    // =====================================================
+    // SNAPSHOT (immutable, versioned)
+    // =====================================================
+
+    /**
+     * Config yang aktif - immutable, version naik setiap perubahan
+     */
+    public record Snapshot(int version,
+                           boolean globalEnabled,
+                           boolean keybindEnabled,
+                           boolean lastUsedMode,
+                           int minSpawnDelay,
+                           int maxSpawnDelay,
+                           int spawnCount,
+                           int maxNearbyEntities,
+                           int playerRange,
+                           int spawnRange,
+                           String scanStrategy,
+                           int scanBudgetMicros,
+                           int updateBudgetMicros,
+                           boolean directApply,
+                           boolean regionIndexing) {
+    }
+
+    /**
+     * Transaksi: copy mutable dari snapshot, setter di-clamp seperti sebelumnya
+     */
+    public static class Builder {
+        private boolean globalEnabled;
+        private boolean keybindEnabled;
+        private boolean lastUsedMode;
+        private int minSpawnDelay;
+        private int maxSpawnDelay;
+        private int spawnCount;
+        private int maxNearbyEntities;
+        private int playerRange;
+        private int spawnRange;
+        private String scanStrategy;
+        private int scanBudgetMicros;
+        private int updateBudgetMicros;
+        private boolean directApply;
+        private boolean regionIndexing;
+
+        private Builder(ModConfig file) {
+            globalEnabled = file.globalEnabled;
+            keybindEnabled = file.keybindEnabled;
+            lastUsedMode = file.lastUsedMode;
+            minSpawnDelay = file.minSpawnDelay;
+            maxSpawnDelay = file.maxSpawnDelay;
+            spawnCount = file.spawnCount;
+            maxNearbyEntities = file.maxNearbyEntities;
+            playerRange = file.playerRange;
+            spawnRange = file.spawnRange;
+            scanStrategy = file.scanStrategy;
+            scanBudgetMicros = file.scanBudgetMicros;
+            updateBudgetMicros = file.updateBudgetMicros;
+            directApply = file.directApply;
+            regionIndexing = file.regionIndexing;
+        }
+
+        private Builder(Snapshot snapshot) {
+            globalEnabled = snapshot.globalEnabled();
+            keybindEnabled = snapshot.keybindEnabled();
+            lastUsedMode = snapshot.lastUsedMode();
+            minSpawnDelay = snapshot.minSpawnDelay();
+            maxSpawnDelay = snapshot.maxSpawnDelay();
+            spawnCount = snapshot.spawnCount();
+            maxNearbyEntities = snapshot.maxNearbyEntities();
+            playerRange = snapshot.playerRange();
+            spawnRange = snapshot.spawnRange();
+            scanStrategy = snapshot.scanStrategy();
+            scanBudgetMicros = snapshot.scanBudgetMicros();
+            updateBudgetMicros = snapshot.updateBudgetMicros();
+            directApply = snapshot.directApply();
+            regionIndexing = snapshot.regionIndexing();
+        }
+
+        public Builder globalEnabled(boolean value) {
+            globalEnabled = value;
+            return this;
+        }
+
+        public Builder keybindEnabled(boolean value) {
+            keybindEnabled = value;
+            return this;
+        }
+
+        public Builder lastUsedMode(boolean value) {
+            lastUsedMode = value;
+            return this;
+        }
+
+        public Builder minSpawnDelay(int value) {
+            minSpawnDelay = Math.max(10, Math.min(200, value));
+            return this;
+        }
+
+        public Builder maxSpawnDelay(int value) {
+            maxSpawnDelay = Math.max(20, Math.min(400, value));
+            return this;
+        }
+
+        public Builder spawnCount(int value) {
+            spawnCount = Math.max(1, Math.min(10, value));
+            return this;
+        }
+
+        public Builder maxNearbyEntities(int value) {
+            maxNearbyEntities = Math.max(4, Math.min(20, value));
+            return this;
+        }
+
+        public Builder playerRange(int value) {
+            playerRange = Math.max(16, Math.min(128, value));
+            return this;
+        }
+
+        public Builder spawnRange(int value) {
+            spawnRange = Math.max(2, Math.min(10, value));
+            return this;
+        }
+
+        public Builder scanStrategy(String value) {
+            if (value != null) {
+                scanStrategy = value;
+            }
+            return this;
+        }
+
+        public Builder scanBudgetMicros(int value) {
+            scanBudgetMicros = Math.max(100, Math.min(50000, value));
+            return this;
+        }
+
+        public Builder updateBudgetMicros(int value) {
+            updateBudgetMicros = Math.max(100, Math.min(50000, value));
+            return this;
+        }
+
+        public Builder directApply(boolean value) {
+            directApply = value;
+            return this;
+        }
+
+        public Builder regionIndexing(boolean value) {
+            regionIndexing = value;
+            return this;
+        }
+
+        private Snapshot build(int version) {
+            return new Snapshot(version, globalEnabled, keybindEnabled, lastUsedMode,
+                    minSpawnDelay, maxSpawnDelay, spawnCount, maxNearbyEntities, playerRange, spawnRange,
+                    scanStrategy, scanBudgetMicros, updateBudgetMicros, directApply, regionIndexing);
+        }
+    }
+
     // =====================================================
-    // SINGLETON INSTANCE
+    // CURRENT SNAPSHOT
     // =====================================================
 
-    private static ModConfig INSTANCE;
+    private static final AtomicReference<Snapshot> CURRENT = new AtomicReference<>();
 
     /**
      * Constructor kosong untuk Gson deserialization
@@ -58,28 +264,34 @@ public class ModConfig {
         // Kosong - hindari recursion
     }
 
+    /**
+     * Snapshot config yang aktif (load dari file saat pertama kali dipanggil)
+     */
+    public static Snapshot snapshot() {
+        Snapshot snapshot = CURRENT.get();
+        return snapshot != null ? snapshot : loadSnapshot();
+    }
+
     /**
      * Load config dari file atau buat default
+     * Return snapshot immutable - perubahan lewat update(...) / setter
      */
-    public static ModConfig load() {
-        if (INSTANCE != null) return INSTANCE;
+    public static Snapshot load() {
+        return snapshot();
+    }
 
-        INSTANCE = new ModConfig();
+    private static synchronized Snapshot loadSnapshot() {
+        Snapshot existing = CURRENT.get();
+        if (existing != null) return existing;
 
-        if (CONFIG_FILE.exists()) {
+        ModConfig file = new ModConfig();
+        boolean created = !CONFIG_FILE.exists();
+
+        if (!created) {
             try (FileReader reader = new FileReader(CONFIG_FILE)) {
                 ModConfig loaded = GSON.fromJson(reader, ModConfig.class);
                 if (loaded != null) {
-                    // Copy all fields
-                    INSTANCE.globalEnabled = loaded.globalEnabled;
-                    INSTANCE.keybindEnabled = loaded.keybindEnabled;
-                    INSTANCE.lastUsedMode = loaded.lastUsedMode; // NEW: Load last used mode
-                    INSTANCE.minSpawnDelay = loaded.minSpawnDelay;
-                    INSTANCE.maxSpawnDelay = loaded.maxSpawnDelay;
-                    INSTANCE.spawnCount = loaded.spawnCount;
-                    INSTANCE.maxNearbyEntities = loaded.maxNearbyEntities;
-                    INSTANCE.playerRange = loaded.playerRange;
-                    INSTANCE.spawnRange = loaded.spawnRange;
+                    file = loaded;
 
                     UniversalSpawnerMod.LOGGER.info("✓ Config loaded from file");
                     UniversalSpawnerMod.LOGGER.info("  Last used mode: {}",
@@ -88,21 +300,112 @@ public class ModConfig {
             } catch (IOException e) {
                 UniversalSpawnerMod.LOGGER.error("Failed to load config: {}", e.getMessage());
             }
-        } else {
+        }
+
+        // Lewat builder supaya nilai dari file juga di-clamp
+        ModConfig defaults = new ModConfig();
+        Snapshot snapshot = new Builder(defaults)
+                .globalEnabled(file.globalEnabled)
+                .keybindEnabled(file.keybindEnabled)
+                .lastUsedMode(file.lastUsedMode)
+                .minSpawnDelay(file.minSpawnDelay)
+                .maxSpawnDelay(file.maxSpawnDelay)
+                .spawnCount(file.spawnCount)
+                .maxNearbyEntities(file.maxNearbyEntities)
+                .playerRange(file.playerRange)
+                .spawnRange(file.spawnRange)
+                .scanStrategy(file.scanStrategy)
+                .scanBudgetMicros(file.scanBudgetMicros)
+                .updateBudgetMicros(file.updateBudgetMicros)
+                .directApply(file.directApply)
+                .regionIndexing(file.regionIndexing)
+                .build(1);
+        CURRENT.set(snapshot);
+
+        if (created) {
             save();
             UniversalSpawnerMod.LOGGER.info("✓ Created default config file");
         }
-        return INSTANCE;
+        return snapshot;
     }
 
     /**
-     * Save config ke file
+     * Transaksi: semua perubahan di builder di-publish sekaligus sebagai satu snapshot baru
+     * (reader tidak pernah melihat config setengah-update). Thread-safe, tanpa lock.
+     * @return snapshot baru
+     */
+    public static Snapshot update(Consumer<Builder> changes) {
+        Snapshot previous;
+        Snapshot next;
+        do {
+            previous = snapshot();
+            Builder builder = new Builder(previous);
+            changes.accept(builder);
+            next = builder.build(previous.version() + 1);
+        } while (!CURRENT.compareAndSet(previous, next));
+
+        save();
+        return next;
+    }
+
+    private static ModConfig toFile(Snapshot snapshot) {
+        ModConfig file = new ModConfig();
+        file.globalEnabled = snapshot.globalEnabled();
+        file.keybindEnabled = snapshot.keybindEnabled();
+        file.lastUsedMode = snapshot.lastUsedMode();
+        file.minSpawnDelay = snapshot.minSpawnDelay();
+        file.maxSpawnDelay = snapshot.maxSpawnDelay();
+        file.spawnCount = snapshot.spawnCount();
+        file.maxNearbyEntities = snapshot.maxNearbyEntities();
+        file.playerRange = snapshot.playerRange();
+        file.spawnRange = snapshot.spawnRange();
+        file.scanStrategy = snapshot.scanStrategy();
+        file.scanBudgetMicros = snapshot.scanBudgetMicros();
+        file.updateBudgetMicros = snapshot.updateBudgetMicros();
+        file.directApply = snapshot.directApply();
+        file.regionIndexing = snapshot.regionIndexing();
+        return file;
+    }
+
+    // =====================================================
+    // PERSISTENCE (write-behind)
+    // =====================================================
+
+    /**
+     * Jadwalkan write - file ditulis async (debounced) oleh SpawnAll-ConfigSaver
      */
     public static void save() {
-        if (INSTANCE == null) return;
-        try (FileWriter writer = new FileWriter(CONFIG_FILE)) {
-            GSON.toJson(INSTANCE, writer);
-            UniversalSpawnerMod.LOGGER.debug("Config saved");
+        if (CURRENT.get() == null) return;
+        if (SAVE_PENDING.compareAndSet(false, true)) {
+            SAVE_EXECUTOR.schedule(ModConfig::flush, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Tulis perubahan yang pending SEKARANG (background thread / shutdown)
+     * Atomic: temp file lalu rename, file lama tidak pernah setengah tertulis.
+     */
+    public static synchronized void flush() {
+        // Reset flag DULU, baru baca snapshot: update() yang masuk setelah ini
+        // pasti menjadwalkan save baru, jadi tidak ada perubahan yang hilang
+        if (!SAVE_PENDING.getAndSet(false)) return;
+
+        Snapshot snapshot = CURRENT.get();
+        if (snapshot == null) return;
+
+        Path file = CONFIG_FILE.toPath();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(toFile(snapshot), writer);
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            UniversalSpawnerMod.LOGGER.debug("Config v{} saved", snapshot.version());
         } catch (IOException e) {
             UniversalSpawnerMod.LOGGER.error("Failed to save config: {}", e.getMessage());
         }
@@ -113,12 +416,11 @@ public class ModConfig {
     // =====================================================
 
     public static boolean isGlobalEnabled() {
-        return load().globalEnabled;
+        return snapshot().globalEnabled();
     }
 
     public static void setGlobalEnabled(boolean value) {
-        load().globalEnabled = value;
-        save();
+        update(config -> config.globalEnabled(value));
     }
 
     // =====================================================
@@ -126,25 +428,23 @@ public class ModConfig {
     // =====================================================
 
     public static boolean isKeybindEnabled() {
-        return load().keybindEnabled;
+        return snapshot().keybindEnabled();
     }
 
     public static void setKeybindEnabled(boolean value) {
-        load().keybindEnabled = value;
-        save();
+        update(config -> config.keybindEnabled(value));
     }
 
     // =====================================================
-    // NEW: GETTERS & SETTERS - Last Used Mode
+    // GETTERS & SETTERS - Last Used Mode
     // =====================================================
 
     public static boolean getLastUsedMode() {
-        return load().lastUsedMode;
+        return snapshot().lastUsedMode();
     }
 
     public static void setLastUsedMode(boolean value) {
-        load().lastUsedMode = value;
-        save();
+        update(config -> config.lastUsedMode(value));
         UniversalSpawnerMod.LOGGER.debug("Last used mode saved: {}", value ? "CUSTOM" : "VANILLA");
     }
 
@@ -153,60 +453,90 @@ public class ModConfig {
     // =====================================================
 
     public static int getMinSpawnDelay() {
-        return load().minSpawnDelay;
+        return snapshot().minSpawnDelay();
     }
 
     public static void setMinSpawnDelay(int value) {
-        load().minSpawnDelay = Math.max(10, Math.min(200, value));
-        save();
+        update(config -> config.minSpawnDelay(value));
     }
 
     public static int getMaxSpawnDelay() {
-        return load().maxSpawnDelay;
+        return snapshot().maxSpawnDelay();
     }
 
     public static void setMaxSpawnDelay(int value) {
-        load().maxSpawnDelay = Math.max(20, Math.min(400, value));
-        save();
+        update(config -> config.maxSpawnDelay(value));
     }
 
     public static int getSpawnCount() {
-        return load().spawnCount;
+        return snapshot().spawnCount();
     }
 
     public static void setSpawnCount(int value) {
-        load().spawnCount = Math.max(1, Math.min(10, value));
-        save();
+        update(config -> config.spawnCount(value));
     }
 
     public static int getMaxNearbyEntities() {
-        return load().maxNearbyEntities;
+        return snapshot().maxNearbyEntities();
     }
 
     public static void setMaxNearbyEntities(int value) {
-        load().maxNearbyEntities = Math.max(4, Math.min(20, value));
-        save();
+        update(config -> config.maxNearbyEntities(value));
     }
 
     public static int getPlayerRange() {
-        return load().playerRange;
+        return snapshot().playerRange();
     }
 
     public static void setPlayerRange(int value) {
-        load().playerRange = Math.max(16, Math.min(128, value));
-        save();
+        update(config -> config.playerRange(value));
     }
 
     public static int getSpawnRange() {
-        return load().spawnRange;
+        return snapshot().spawnRange();
     }
 
     public static void setSpawnRange(int value) {
-        load().spawnRange = Math.max(2, Math.min(10, value));
-        save();
+        update(config -> config.spawnRange(value));
+    }
+
+    // =====================================================
+    // GETTERS - Scan Strategy
+    // =====================================================
+
+    public static String getScanStrategy() {
+        return snapshot().scanStrategy();
+    }
+
+    // =====================================================
+    // GETTERS - Scan Budget
+    // =====================================================
+
+    public static int getScanBudgetMicros() {
+        return snapshot().scanBudgetMicros();
+    }
+
+    // =====================================================
+    // GETTERS - Update Budget
+    // =====================================================
+
+    public static int getUpdateBudgetMicros() {
+        return snapshot().updateBudgetMicros();
+    }
+
+    // =====================================================
+    // GETTERS - Direct Apply
+    // =====================================================
+
+    public static boolean isDirectApply() {
+        return snapshot().directApply();
     }
 
-    public static ModConfig getInstance() {
-        return load();
+    // =====================================================
+    // GETTERS - Region Indexing
+    // =====================================================
+
+    public static boolean isRegionIndexing() {
+        return snapshot().regionIndexing();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.example.spawnall.mixin;
+
+import net.minecraft.block.spawner.MobSpawnerEntry;
+import net.minecraft.block.spawner.MobSpawnerLogic;
+import net.minecraft.util.collection.DataPool;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Accessor untuk MobSpawnerLogic:
+ * - Baca spawn entry yang aktif langsung, tanpa serialize NBT
+ * - Set parameter + spawn entry langsung, tanpa NBT round-trip (spawnerEntity.read)
+ */
+@Mixin(MobSpawnerLogic.class)
+public interface MobSpawnerLogicAccessor {
+
+    @Accessor("spawnEntry")
+    MobSpawnerEntry spawnall$getSpawnEntry();
+
+    @Accessor("spawnEntry")
+    void spawnall$setSpawnEntry(MobSpawnerEntry spawnEntry);
+
+    @Accessor("spawnPotentials")
+    void spawnall$setSpawnPotentials(DataPool<MobSpawnerEntry> spawnPotentials);
+
+    @Accessor("spawnDelay")
+    void spawnall$setSpawnDelay(int spawnDelay);
+
+    @Accessor("minSpawnDelay")
+    void spawnall$setMinSpawnDelay(int minSpawnDelay);
+
+    @Accessor("maxSpawnDelay")
+    void spawnall$setMaxSpawnDelay(int maxSpawnDelay);
+
+    @Accessor("spawnCount")
+    void spawnall$setSpawnCount(int spawnCount);
+
+    @Accessor("maxNearbyEntities")
+    void spawnall$setMaxNearbyEntities(int maxNearbyEntities);
+
+    @Accessor("requiredPlayerRange")
+    void spawnall$setRequiredPlayerRange(int requiredPlayerRange);
+
+    @Accessor("spawnRange")
+    void spawnall$setSpawnRange(int spawnRange);
+}
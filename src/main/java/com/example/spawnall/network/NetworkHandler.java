@@ -8,8 +8,12 @@ import net.minecraft.network.RegistryByteBuf;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.codec.PacketCodecs;
 import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 
+import java.util.Objects;
+
 /**
  * Network handler untuk client-server communication
  * Compatible dengan Minecraft 1.21.4
@@ -20,6 +24,10 @@ public class NetworkHandler {
     public static final Identifier TOGGLE_MODE_ID = Identifier.of(UniversalSpawnerMod.MOD_ID, "toggle_mode");
     public static final Identifier UPDATE_CONFIG_ID = Identifier.of(UniversalSpawnerMod.MOD_ID, "update_config");
     public static final Identifier SYNC_ON_JOIN_ID = Identifier.of(UniversalSpawnerMod.MOD_ID, "sync_on_join");
+    public static final Identifier CONFIG_HASH_ID = Identifier.of(UniversalSpawnerMod.MOD_ID, "config_hash");
+
+    // Permission level yang boleh push config ke server saat join (op)
+    private static final int SYNC_PERMISSION_LEVEL = 2;
 
     /**
      * Register all network packets
@@ -29,12 +37,15 @@ public class NetworkHandler {
         PayloadTypeRegistry.playC2S().register(ToggleModePayload.ID, ToggleModePayload.CODEC);
         PayloadTypeRegistry.playC2S().register(UpdateConfigPayload.ID, UpdateConfigPayload.CODEC);
         PayloadTypeRegistry.playC2S().register(SyncOnJoinPayload.ID, SyncOnJoinPayload.CODEC);
+        PayloadTypeRegistry.playS2C().register(ConfigHashPayload.ID, ConfigHashPayload.CODEC);
 
         // =====================================================
         // RECEIVER 1: Toggle Mode
         // =====================================================
         ServerPlayNetworking.registerGlobalReceiver(ToggleModePayload.ID, (payload, context) -> {
             context.server().execute(() -> {
+                if (rejectUnauthorized(context.player(), "mode toggle")) return;
+
                 // Toggle mod enabled state
                 UniversalSpawnerMod.modEnabled = payload.enabled();
 
@@ -59,13 +70,16 @@ public class NetworkHandler {
         // =====================================================
         ServerPlayNetworking.registerGlobalReceiver(UpdateConfigPayload.ID, (payload, context) -> {
             context.server().execute(() -> {
-                // Update config values
-                ModConfig.setMinSpawnDelay(payload.minSpawnDelay());
-                ModConfig.setMaxSpawnDelay(payload.maxSpawnDelay());
-                ModConfig.setSpawnCount(payload.spawnCount());
-                ModConfig.setMaxNearbyEntities(payload.maxNearbyEntities());
-                ModConfig.setPlayerRange(payload.playerRange());
-                ModConfig.setSpawnRange(payload.spawnRange());
+                if (rejectUnauthorized(context.player(), "config update")) return;
+
+                // Update config values (satu transaksi - tidak pernah terlihat setengah-update)
+                ModConfig.update(config -> config
+                        .minSpawnDelay(payload.minSpawnDelay())
+                        .maxSpawnDelay(payload.maxSpawnDelay())
+                        .spawnCount(payload.spawnCount())
+                        .maxNearbyEntities(payload.maxNearbyEntities())
+                        .playerRange(payload.playerRange())
+                        .spawnRange(payload.spawnRange()));
 
                 // Request spawner update if mod is enabled
                 if (UniversalSpawnerMod.isModEnabled()) {
@@ -91,19 +105,32 @@ public class NetworkHandler {
         // =====================================================
         ServerPlayNetworking.registerGlobalReceiver(SyncOnJoinPayload.ID, (payload, context) -> {
             context.server().execute(() -> {
+                ServerPlayerEntity player = context.player();
+
+                // Server authoritative: hanya op / host yang boleh overwrite config server
+                if (rejectUnauthorized(player, "join sync")) return;
+
+                // Tidak ada yang berubah -> tidak ada spawner work sama sekali
+                int incomingHash = configHash(payload.lastUsedMode(), payload.minSpawnDelay(), payload.maxSpawnDelay(),
+                        payload.spawnCount(), payload.maxNearbyEntities(), payload.playerRange(), payload.spawnRange());
+                if (incomingHash == serverConfigHash()) {
+                    UniversalSpawnerMod.LOGGER.info("🎮 Join sync from {}: config unchanged, skipping update",
+                            player.getName().getString());
+                    return;
+                }
+
                 // NEW: Restore last used mode instead of always using globalEnabled
                 UniversalSpawnerMod.modEnabled = payload.lastUsedMode();
 
-                // Sync config values
-                ModConfig.setMinSpawnDelay(payload.minSpawnDelay());
-                ModConfig.setMaxSpawnDelay(payload.maxSpawnDelay());
-                ModConfig.setSpawnCount(payload.spawnCount());
-                ModConfig.setMaxNearbyEntities(payload.maxNearbyEntities());
-                ModConfig.setPlayerRange(payload.playerRange());
-                ModConfig.setSpawnRange(payload.spawnRange());
-
-                // Save the restored mode
-                ModConfig.setLastUsedMode(payload.lastUsedMode());
+                // Sync config values + save the restored mode (satu transaksi)
+                ModConfig.update(config -> config
+                        .minSpawnDelay(payload.minSpawnDelay())
+                        .maxSpawnDelay(payload.maxSpawnDelay())
+                        .spawnCount(payload.spawnCount())
+                        .maxNearbyEntities(payload.maxNearbyEntities())
+                        .playerRange(payload.playerRange())
+                        .spawnRange(payload.spawnRange())
+                        .lastUsedMode(payload.lastUsedMode()));
 
                 // Request spawner update untuk SEMUA spawner (termasuk yang existing)
                 UniversalSpawnerMod.requestSpawnerUpdate();
@@ -129,6 +156,64 @@ public class NetworkHandler {
         UniversalSpawnerMod.LOGGER.info("✓ Network packets registered (with mode persistence)");
     }
 
+    // =====================================================
+    // CONFIG HASH HANDSHAKE (server authoritative)
+    // =====================================================
+
+    /**
+     * Player join: kirim hash config server + mode server + apakah player boleh push config
+     * Client hanya kirim SyncOnJoinPayload kalau boleh DAN hash-nya beda;
+     * kalau tidak boleh, client ikut mode server.
+     */
+    public static void sendConfigHash(ServerPlayerEntity player) {
+        if (ServerPlayNetworking.canSend(player, ConfigHashPayload.ID)) {
+            ServerPlayNetworking.send(player, new ConfigHashPayload(serverConfigHash(),
+                    UniversalSpawnerMod.modEnabled, canPushConfig(player)));
+        }
+    }
+
+    /**
+     * Tolak perubahan config dari player tanpa izin (op level 2 / host)
+     * Client-nya dikirimi state server lagi supaya mode lokalnya kembali benar.
+     * @return true kalau ditolak
+     */
+    private static boolean rejectUnauthorized(ServerPlayerEntity player, String action) {
+        if (canPushConfig(player)) {
+            return false;
+        }
+
+        UniversalSpawnerMod.LOGGER.warn("⚠ Ignored {} from {} (not authorized)", action, player.getName().getString());
+        player.sendMessage(Text.literal("§c[Spawn All] Only operators can change spawner settings on this server"), false);
+        sendConfigHash(player);
+        return true;
+    }
+
+    /**
+     * Hash config yang relevan untuk spawner (mode + parameter) - sama di client dan server
+     */
+    public static int configHash(boolean mode, int minSpawnDelay, int maxSpawnDelay, int spawnCount,
+                                 int maxNearbyEntities, int playerRange, int spawnRange) {
+        return Objects.hash(mode, minSpawnDelay, maxSpawnDelay, spawnCount, maxNearbyEntities, playerRange, spawnRange);
+    }
+
+    /**
+     * Hash config lokal dari satu snapshot (mode = last used mode)
+     */
+    public static int localConfigHash(boolean mode) {
+        ModConfig.Snapshot config = ModConfig.snapshot();
+        return configHash(mode, config.minSpawnDelay(), config.maxSpawnDelay(), config.spawnCount(),
+                config.maxNearbyEntities(), config.playerRange(), config.spawnRange());
+    }
+
+    private static int serverConfigHash() {
+        return localConfigHash(UniversalSpawnerMod.modEnabled);
+    }
+
+    private static boolean canPushConfig(ServerPlayerEntity player) {
+        return player.hasPermissionLevel(SYNC_PERMISSION_LEVEL)
+                || player.getServer() != null && player.getServer().isHost(player.getGameProfile());
+    }
+
     // =====================================================
     // PACKET 1: Toggle Mode (Client → Server)
     // =====================================================
@@ -179,6 +264,27 @@ public class NetworkHandler {
         }
     }
 
+    // =====================================================
+    // PACKET 4: Config Hash (Server → Client, saat join)
+    // =====================================================
+    public record ConfigHashPayload(int configHash, boolean serverMode, boolean canPush) implements CustomPayload {
+        public static final CustomPayload.Id<ConfigHashPayload> ID =
+                new CustomPayload.Id<>(CONFIG_HASH_ID);
+
+        public static final PacketCodec<RegistryByteBuf, ConfigHashPayload> CODEC =
+                PacketCodec.tuple(
+                        PacketCodecs.INTEGER, ConfigHashPayload::configHash,
+                        PacketCodecs.BOOLEAN, ConfigHashPayload::serverMode,
+                        PacketCodecs.BOOLEAN, ConfigHashPayload::canPush,
+                        ConfigHashPayload::new
+                );
+
+        @Override
+        public Id<? extends CustomPayload> getId() {
+            return ID;
+        }
+    }
+
     // =====================================================
     // PACKET 3: Sync on Join - WITH LAST MODE!
     // =====================================================
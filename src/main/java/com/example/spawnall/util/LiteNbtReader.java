@@ -0,0 +1,167 @@
+package com.example.spawnall.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal NBT reader - TANPA dependency Minecraft
+ * Dipakai untuk baca chunk NBT langsung dari region file (juga dari offline CLI).
+ * Tag yang tidak dibutuhkan di-skip tanpa alokasi.
+ *
+ * Input selalu buffer yang sudah di-decompress: panjang array / list dari disk
+ * dicek terhadap sisa buffer sebelum alokasi, jadi file corrupt tidak bisa bikin OOM.
+ *
+ * Hasil parse: Byte, Short, Integer, Long, Float, Double, byte[], String,
+ * List&lt;Object&gt;, Map&lt;String, Object&gt;, int[], long[]
+ */
+public final class LiteNbtReader {
+
+    public static final int TAG_END = 0;
+    public static final int TAG_BYTE = 1;
+    public static final int TAG_SHORT = 2;
+    public static final int TAG_INT = 3;
+    public static final int TAG_LONG = 4;
+    public static final int TAG_FLOAT = 5;
+    public static final int TAG_DOUBLE = 6;
+    public static final int TAG_BYTE_ARRAY = 7;
+    public static final int TAG_STRING = 8;
+    public static final int TAG_LIST = 9;
+    public static final int TAG_COMPOUND = 10;
+    public static final int TAG_INT_ARRAY = 11;
+    public static final int TAG_LONG_ARRAY = 12;
+
+    private LiteNbtReader() {
+    }
+
+    /**
+     * Baca root compound dan ambil SATU top-level tag saja (tag lain di-skip)
+     * Berhenti membaca begitu tag ditemukan.
+     * @return value tag, atau null kalau tidak ada
+     */
+    public static Object readRootTag(byte[] data, String wantedKey) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+        int rootType = in.readUnsignedByte();
+        if (rootType != TAG_COMPOUND) {
+            return null;
+        }
+        in.readUTF(); // Root name (biasanya kosong)
+
+        while (true) {
+            int type = in.readUnsignedByte();
+            if (type == TAG_END) {
+                return null;
+            }
+
+            String key = in.readUTF();
+            if (key.equals(wantedKey)) {
+                return readValue(in, type);
+            }
+            skipValue(in, type);
+        }
+    }
+
+    /**
+     * Parse value lengkap
+     */
+    private static Object readValue(DataInputStream in, int type) throws IOException {
+        return switch (type) {
+            case TAG_BYTE -> in.readByte();
+            case TAG_SHORT -> in.readShort();
+            case TAG_INT -> in.readInt();
+            case TAG_LONG -> in.readLong();
+            case TAG_FLOAT -> in.readFloat();
+            case TAG_DOUBLE -> in.readDouble();
+            case TAG_STRING -> in.readUTF();
+            case TAG_BYTE_ARRAY -> {
+                byte[] bytes = new byte[readLength(in, 1)];
+                in.readFully(bytes);
+                yield bytes;
+            }
+            case TAG_INT_ARRAY -> {
+                int[] ints = new int[readLength(in, 4)];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = in.readInt();
+                }
+                yield ints;
+            }
+            case TAG_LONG_ARRAY -> {
+                long[] longs = new long[readLength(in, 8)];
+                for (int i = 0; i < longs.length; i++) {
+                    longs[i] = in.readLong();
+                }
+                yield longs;
+            }
+            case TAG_LIST -> {
+                int elementType = in.readUnsignedByte();
+                int length = readLength(in, 1);
+                List<Object> list = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    list.add(readValue(in, elementType));
+                }
+                yield list;
+            }
+            case TAG_COMPOUND -> {
+                Map<String, Object> compound = new HashMap<>();
+                int entryType;
+                while ((entryType = in.readUnsignedByte()) != TAG_END) {
+                    String key = in.readUTF();
+                    compound.put(key, readValue(in, entryType));
+                }
+                yield compound;
+            }
+            default -> throw new IOException("Unknown NBT tag type: " + type);
+        };
+    }
+
+    /**
+     * Skip value tanpa parse (fixed-size array di-skip langsung)
+     */
+    private static void skipValue(DataInputStream in, int type) throws IOException {
+        switch (type) {
+            case TAG_BYTE -> in.skipNBytes(1);
+            case TAG_SHORT -> in.skipNBytes(2);
+            case TAG_INT, TAG_FLOAT -> in.skipNBytes(4);
+            case TAG_LONG, TAG_DOUBLE -> in.skipNBytes(8);
+            case TAG_BYTE_ARRAY -> in.skipNBytes(readLength(in, 1));
+            case TAG_STRING -> in.skipNBytes(in.readUnsignedShort());
+            case TAG_INT_ARRAY -> in.skipNBytes(4L * readLength(in, 4));
+            case TAG_LONG_ARRAY -> in.skipNBytes(8L * readLength(in, 8));
+            case TAG_LIST -> {
+                int elementType = in.readUnsignedByte();
+                int length = in.readInt();
+                for (int i = 0; i < length; i++) {
+                    skipValue(in, elementType);
+                }
+            }
+            case TAG_COMPOUND -> {
+                while (true) {
+                    int entryType = in.readUnsignedByte();
+                    if (entryType == TAG_END) {
+                        return;
+                    }
+                    in.skipNBytes(in.readUnsignedShort()); // Key
+                    skipValue(in, entryType);
+                }
+            }
+            default -> throw new IOException("Unknown NBT tag type: " + type);
+        }
+    }
+
+    /**
+     * Panjang array / list dari disk - ditolak kalau negatif atau lebih besar dari sisa buffer
+     * (setiap elemen minimal elementSize byte)
+     */
+    private static int readLength(DataInputStream in, int elementSize) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || (long) length * elementSize > in.available()) {
+            throw new IOException("Invalid NBT length: " + length);
+        }
+        return length;
+    }
+}
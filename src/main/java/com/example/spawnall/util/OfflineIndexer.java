@@ -0,0 +1,128 @@
+package com.example.spawnall.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Standalone offline spawner indexer (CLI) - jalan TANPA Minecraft server
+ *
+ * Usage: java -jar spawn-all-&lt;version&gt;.jar &lt;world-folder&gt; [output-file]
+ *
+ * Scan region files semua dimension di copy world save, lalu tulis
+ * spawnall-index.bin (default: di root world folder). Mod akan load index ini
+ * saat server start dan skip region indexing untuk dimension yang sudah ada.
+ *
+ * Hanya boleh pakai class yang tidak bergantung pada Minecraft / Fabric.
+ */
+public final class OfflineIndexer {
+
+    private OfflineIndexer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java -jar spawn-all.jar <world-folder> [output-file]");
+            System.exit(2);
+            return;
+        }
+
+        Path worldDir = Path.of(args[0]);
+        Path output = args.length > 1 ? Path.of(args[1]) : worldDir.resolve(SpawnerIndexFile.FILE_NAME);
+
+        if (!Files.isDirectory(worldDir)) {
+            System.err.println("World folder not found: " + worldDir);
+            System.exit(1);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        Map<String, Path> dimensions = findDimensions(worldDir);
+        Map<String, List<RegionFileReader.FoundSpawner>> byDimension = new LinkedHashMap<>();
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (Map.Entry<String, Path> dimension : dimensions.entrySet()) {
+                List<Path> regionFiles = listRegionFiles(dimension.getValue());
+                System.out.println("[Spawn All] " + dimension.getKey() + ": " + regionFiles.size() + " region file(s)");
+
+                List<Future<List<RegionFileReader.FoundSpawner>>> futures = new ArrayList<>();
+                for (Path regionFile : regionFiles) {
+                    futures.add(pool.submit(() -> {
+                        try {
+                            return RegionFileReader.readSpawners(regionFile);
+                        } catch (IOException e) {
+                            System.err.println("  Skipping " + regionFile.getFileName() + ": " + e.getMessage());
+                            return Collections.<RegionFileReader.FoundSpawner>emptyList();
+                        }
+                    }));
+                }
+
+                List<RegionFileReader.FoundSpawner> spawners = new ArrayList<>();
+                for (Future<List<RegionFileReader.FoundSpawner>> future : futures) {
+                    spawners.addAll(future.get());
+                }
+
+                byDimension.put(dimension.getKey(), spawners);
+                System.out.println("  -> " + spawners.size() + " spawner(s)");
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        SpawnerIndexFile.write(output, byDimension);
+
+        int total = byDimension.values().stream().mapToInt(List::size).sum();
+        System.out.println("[Spawn All] Wrote " + total + " spawner(s) to " + output +
+                " in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Dimension ID -> region folder (layout sama dengan DimensionType.getSaveDirectory)
+     */
+    private static Map<String, Path> findDimensions(Path worldDir) throws IOException {
+        Map<String, Path> dimensions = new LinkedHashMap<>();
+        addIfPresent(dimensions, "minecraft:overworld", worldDir.resolve("region"));
+        addIfPresent(dimensions, "minecraft:the_nether", worldDir.resolve("DIM-1").resolve("region"));
+        addIfPresent(dimensions, "minecraft:the_end", worldDir.resolve("DIM1").resolve("region"));
+
+        // Custom dimensions: dimensions/<namespace>/<path>/region
+        Path custom = worldDir.resolve("dimensions");
+        if (Files.isDirectory(custom)) {
+            try (Stream<Path> namespaces = Files.list(custom)) {
+                for (Path namespace : namespaces.filter(Files::isDirectory).toList()) {
+                    try (Stream<Path> paths = Files.walk(namespace)) {
+                        for (Path region : paths.filter(p -> p.getFileName().toString().equals("region")).toList()) {
+                            String path = namespace.relativize(region.getParent()).toString().replace('\\', '/');
+                            addIfPresent(dimensions, namespace.getFileName() + ":" + path, region);
+                        }
+                    }
+                }
+            }
+        }
+        return dimensions;
+    }
+
+    private static void addIfPresent(Map<String, Path> dimensions, String id, Path regionDir) {
+        if (Files.isDirectory(regionDir)) {
+            dimensions.putIfAbsent(id, regionDir);
+        }
+    }
+
+    private static List<Path> listRegionFiles(Path regionDir) throws IOException {
+        try (Stream<Path> files = Files.list(regionDir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".mca")).sorted().toList();
+        }
+    }
+}
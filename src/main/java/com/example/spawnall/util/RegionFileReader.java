@@ -0,0 +1,198 @@
+package com.example.spawnall.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reader untuk region file (.mca) - TANPA dependency Minecraft
+ * File di-memory-map, lalu dari tiap chunk hanya list "block_entities" yang di-parse.
+ * Spawner diambil dengan aturan yang sama seperti SpawnerScanner.extractEntityIdFromNbt.
+ */
+public final class RegionFileReader {
+
+    private static final int SECTOR_SIZE = 4096;
+    private static final int CHUNKS_PER_REGION = 1024;
+
+    private static final int COMPRESSION_GZIP = 1;
+    private static final int COMPRESSION_ZLIB = 2;
+    private static final int COMPRESSION_NONE = 3;
+    private static final int COMPRESSION_EXTERNAL_FLAG = 128;
+
+    // Batas chunk NBT setelah di-decompress (chunk vanilla biasanya < 1 MiB)
+    private static final int MAX_CHUNK_BYTES = 32 * 1024 * 1024;
+
+    private static final String SPAWNER_BLOCK_ENTITY_ID = "minecraft:mob_spawner";
+    private static final String DEFAULT_ENTITY_ID = "minecraft:pig";
+
+    /**
+     * Spawner yang ditemukan di region file (world coordinates)
+     */
+    public record FoundSpawner(int x, int y, int z, String entityId) {
+    }
+
+    private RegionFileReader() {
+    }
+
+    /**
+     * Scan satu region file dan kembalikan semua spawner di dalamnya
+     * Chunk yang corrupt / format tidak didukung (mis. LZ4) di-skip.
+     */
+    public static List<FoundSpawner> readSpawners(Path regionFile) throws IOException {
+        List<FoundSpawner> found = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(regionFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SECTOR_SIZE * 2L) {
+                return found; // Region kosong / header tidak lengkap
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            for (int index = 0; index < CHUNKS_PER_REGION; index++) {
+                int location = buffer.getInt(index * 4);
+                if (location == 0) {
+                    continue; // Chunk belum pernah di-generate
+                }
+
+                long offset = (long) (location >>> 8) * SECTOR_SIZE;
+                if (offset + 5 > size) {
+                    continue;
+                }
+
+                try {
+                    readChunk(regionFile, buffer, (int) offset, index, found);
+                } catch (IOException | RuntimeException e) {
+                    // Skip chunk yang corrupt
+                }
+            }
+        }
+
+        return found;
+    }
+
+    private static void readChunk(Path regionFile, ByteBuffer buffer, int offset, int index,
+                                  List<FoundSpawner> found) throws IOException {
+        int length = buffer.getInt(offset);
+        int compression = buffer.get(offset + 4) & 0xFF;
+
+        InputStream raw;
+        if ((compression & COMPRESSION_EXTERNAL_FLAG) != 0) {
+            // Chunk besar disimpan di file terpisah: c.<x>.<z>.mcc (length di region = 1, tanpa payload)
+            Path external = externalChunkFile(regionFile, index);
+            if (external == null || !Files.exists(external)) {
+                return;
+            }
+            raw = Files.newInputStream(external);
+            compression &= ~COMPRESSION_EXTERNAL_FLAG;
+        } else {
+            if (length <= 1 || offset + 4L + length > buffer.limit()) {
+                return;
+            }
+            byte[] payload = new byte[length - 1];
+            buffer.get(offset + 5, payload);
+            raw = new ByteArrayInputStream(payload);
+        }
+
+        // Stream (termasuk file .mcc) tetap ditutup walau decompress gagal
+        byte[] data;
+        try (InputStream source = raw; InputStream decompressed = decompress(source, compression)) {
+            data = decompressed.readNBytes(MAX_CHUNK_BYTES + 1);
+        }
+        if (data.length > MAX_CHUNK_BYTES) {
+            throw new IOException("Chunk NBT exceeds " + MAX_CHUNK_BYTES + " bytes");
+        }
+
+        Object blockEntities = LiteNbtReader.readRootTag(data, "block_entities");
+        if (!(blockEntities instanceof List<?> list)) {
+            return;
+        }
+
+        for (Object element : list) {
+            if (element instanceof Map<?, ?> blockEntity
+                    && SPAWNER_BLOCK_ENTITY_ID.equals(blockEntity.get("id"))
+                    && blockEntity.get("x") instanceof Integer x
+                    && blockEntity.get("y") instanceof Integer y
+                    && blockEntity.get("z") instanceof Integer z) {
+                found.add(new FoundSpawner(x, y, z, extractEntityId(blockEntity)));
+            }
+        }
+    }
+
+    private static InputStream decompress(InputStream raw, int compression) throws IOException {
+        return switch (compression) {
+            case COMPRESSION_GZIP -> new GZIPInputStream(raw);
+            case COMPRESSION_ZLIB -> new InflaterInputStream(raw);
+            case COMPRESSION_NONE -> raw;
+            // LZ4 (4) dan custom compression butuh library tambahan - skip
+            default -> throw new IOException("Unsupported chunk compression: " + compression);
+        };
+    }
+
+    /**
+     * r.<rx>.<rz>.mca + index -> c.<cx>.<cz>.mcc
+     */
+    private static Path externalChunkFile(Path regionFile, int index) {
+        String[] parts = regionFile.getFileName().toString().split("\\.");
+        if (parts.length != 4) {
+            return null;
+        }
+
+        try {
+            int chunkX = Integer.parseInt(parts[1]) * 32 + (index & 31);
+            int chunkZ = Integer.parseInt(parts[2]) * 32 + (index >> 5);
+            return regionFile.resolveSibling("c." + chunkX + "." + chunkZ + ".mcc");
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // =====================================================
+    // ENTITY ID RULES (mirror SpawnerScanner.extractEntityIdFromNbt)
+    // =====================================================
+
+    /**
+     * Method 1: SpawnData.entity.id
+     * Method 2: SpawnPotentials[0].data.entity.id
+     * Fallback: pig
+     */
+    public static String extractEntityId(Map<?, ?> spawnerTag) {
+        String id = entityIdOf(spawnerTag.get("SpawnData"));
+        if (id != null) {
+            return id;
+        }
+
+        if (spawnerTag.get("SpawnPotentials") instanceof List<?> potentials
+                && !potentials.isEmpty()
+                && potentials.get(0) instanceof Map<?, ?> firstPotential) {
+            id = entityIdOf(firstPotential.get("data"));
+            if (id != null) {
+                return id;
+            }
+        }
+
+        return DEFAULT_ENTITY_ID;
+    }
+
+    private static String entityIdOf(Object spawnData) {
+        if (spawnData instanceof Map<?, ?> data
+                && data.get("entity") instanceof Map<?, ?> entity
+                && entity.get("id") instanceof String id
+                && !id.isEmpty()
+                && !id.equals("minecraft:")) {
+            return id;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.dimension.DimensionType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Background indexer untuk chunk yang TIDAK loaded
+ * Baca region files (.mca) langsung dari disk di bounded thread pool,
+ * tanpa load chunk ke server. Hasil dikirim ke registry lewat server thread.
+ */
+public class RegionSpawnerIndexer {
+
+    private static final int POOL_SIZE = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static ExecutorService pool;
+
+    // Naik setiap stop() - hasil dari run lama diabaikan
+    private static final AtomicInteger RUN_ID = new AtomicInteger();
+
+    /**
+     * Mulai index semua region file milik world (dipanggil dari server thread)
+     */
+    public static void start(ServerWorld world) {
+        MinecraftServer server = world.getServer();
+        Path regionDir = DimensionType.getSaveDirectory(
+                world.getRegistryKey(),
+                server.getSavePath(WorldSavePath.ROOT)
+        ).resolve("region");
+
+        if (!Files.isDirectory(regionDir)) {
+            return;
+        }
+
+        List<Path> regionFiles;
+        try (Stream<Path> files = Files.list(regionDir)) {
+            regionFiles = files.filter(path -> path.getFileName().toString().endsWith(".mca")).toList();
+        } catch (IOException e) {
+            UniversalSpawnerMod.LOGGER.error("Failed to list region files in {}: {}", regionDir, e.getMessage());
+            return;
+        }
+
+        if (regionFiles.isEmpty()) {
+            return;
+        }
+
+        UniversalSpawnerMod.LOGGER.info("🗺 Region indexer: {} region file(s) in {} ({} thread(s))",
+                regionFiles.size(), world.getRegistryKey().getValue(), POOL_SIZE);
+
+        int runId = RUN_ID.get();
+        long startNanos = System.nanoTime();
+        AtomicInteger remaining = new AtomicInteger(regionFiles.size());
+        AtomicInteger spawnersFound = new AtomicInteger(0);
+        ExecutorService executor = pool();
+
+        for (Path regionFile : regionFiles) {
+            executor.execute(() -> {
+                try {
+                    List<RegionFileReader.FoundSpawner> found = RegionFileReader.readSpawners(regionFile);
+
+                    if (!found.isEmpty()) {
+                        spawnersFound.addAndGet(found.size());
+
+                        Map<BlockPos, String> spawners = new HashMap<>();
+                        for (RegionFileReader.FoundSpawner spawner : found) {
+                            spawners.put(new BlockPos(spawner.x(), spawner.y(), spawner.z()), spawner.entityId());
+                        }
+
+                        // Registry hanya disentuh dari server thread (di-drain di world tick)
+                        if (RUN_ID.get() == runId) {
+                            SpawnerMutationQueue.submitIndexed(world, spawners);
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    UniversalSpawnerMod.LOGGER.debug("Could not read region file {}: {}", regionFile, e.getMessage());
+                } finally {
+                    // Selalu dihitung, supaya region gagal tidak menahan "done" + RegionIndexed
+                    finishRegion(world, runId, remaining, spawnersFound, startNanos);
+                }
+            });
+        }
+    }
+
+    /**
+     * Satu region selesai (berhasil atau gagal) - region terakhir menutup run ini
+     */
+    private static void finishRegion(ServerWorld world, int runId, AtomicInteger remaining,
+                                     AtomicInteger spawnersFound, long startNanos) {
+        if (remaining.decrementAndGet() == 0 && RUN_ID.get() == runId) {
+            UniversalSpawnerMod.LOGGER.info("✓ Region indexer done for {}: {} spawner(s) in {} ms",
+                    world.getRegistryKey().getValue(), spawnersFound.get(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+
+            // Setelah semua hasil masuk registry: restart berikutnya tidak perlu index ulang
+            SpawnerMutationQueue.submitTask(world, () -> {
+                SpawnerIndexState.get(world).markRegionIndexed();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Load index dari offline CLI (world/spawnall-index.bin) kalau ada
+     * World yang sudah RegionIndexed di-skip: isinya sudah ada di index yang disimpan.
+     * @return dimension ID yang sudah ter-cover oleh index (tidak perlu di-scan lagi)
+     */
+    public static Set<String> loadOfflineIndex(MinecraftServer server) {
+        Path indexFile = server.getSavePath(WorldSavePath.ROOT).resolve(SpawnerIndexFile.FILE_NAME);
+        if (!Files.isRegularFile(indexFile)) {
+            return Set.of();
+        }
+
+        List<ServerWorld> worlds = new ArrayList<>();
+        for (ServerWorld world : server.getWorlds()) {
+            if (!SpawnerIndexState.get(world).isRegionIndexed()) {
+                worlds.add(world);
+            }
+        }
+        if (worlds.isEmpty()) {
+            return Set.of(); // Semua world sudah di-import / di-index sebelumnya
+        }
+
+        Map<String, List<RegionFileReader.FoundSpawner>> byDimension;
+        try {
+            byDimension = SpawnerIndexFile.read(indexFile);
+        } catch (IOException | RuntimeException e) {
+            UniversalSpawnerMod.LOGGER.error("Failed to load offline spawner index {}: {}", indexFile, e.getMessage());
+            return Set.of();
+        }
+
+        Set<String> loaded = new HashSet<>();
+        for (ServerWorld world : worlds) {
+            String dimension = world.getRegistryKey().getValue().toString();
+            List<RegionFileReader.FoundSpawner> found = byDimension.get(dimension);
+            if (found == null) {
+                continue;
+            }
+
+            Map<BlockPos, String> spawners = new HashMap<>();
+            for (RegionFileReader.FoundSpawner spawner : found) {
+                spawners.put(new BlockPos(spawner.x(), spawner.y(), spawner.z()), spawner.entityId());
+            }
+            UniversalSpawnerMod.registerIndexedSpawners(world, spawners);
+            loaded.add(dimension);
+
+            // Isi offline index sekarang ikut tersimpan di spawnall_index.dat - boot berikutnya tidak import ulang
+            SpawnerIndexState.get(world).markRegionIndexed();
+
+            UniversalSpawnerMod.LOGGER.info("📂 Offline index: {} spawner(s) loaded for {}", found.size(), dimension);
+        }
+        return loaded;
+    }
+
+    private static synchronized ExecutorService pool() {
+        if (pool == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(POOL_SIZE, runnable -> {
+                Thread thread = new Thread(runnable, "SpawnAll-RegionIndexer-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        return pool;
+    }
+
+    /**
+     * Hentikan semua indexing (server stopping)
+     */
+    public static synchronized void stop() {
+        RUN_ID.incrementAndGet();
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+}
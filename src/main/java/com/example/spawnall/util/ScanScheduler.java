@@ -0,0 +1,159 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import com.example.spawnall.config.ModConfig;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Scan scheduler yang jalan di SERVER THREAD
+ * Antrian chunk dibagi ke beberapa tick dengan budget waktu (microseconds) per tick,
+ * jadi scan besar tidak bikin MSPT spike dan tidak pernah akses world dari thread lain.
+ */
+public class ScanScheduler {
+
+    private static final ConcurrentLinkedQueue<ScanJob> JOBS = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Satu scan job: daftar chunk + visitor per chunk + progress
+     */
+    public static class ScanJob {
+        private final ServerWorld world;
+        private final String label;
+        private final LongList chunks;
+        private final Consumer<WorldChunk> visitor;
+        private final IntConsumer progressListener;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private int cursor = 0;
+        private int chunksVisited = 0;
+        private int lastReportedPercent = 0;
+        private final long startNanos = System.nanoTime();
+
+        private ScanJob(ServerWorld world, String label, LongList chunks,
+                        Consumer<WorldChunk> visitor, IntConsumer progressListener) {
+            this.world = world;
+            this.label = label;
+            this.chunks = chunks;
+            this.visitor = visitor;
+            this.progressListener = progressListener;
+        }
+
+        public int getProgressPercent() {
+            return chunks.isEmpty() ? 100 : (int) (cursor * 100L / chunks.size());
+        }
+
+        private boolean isDone() {
+            return cursor >= chunks.size();
+        }
+
+        /**
+         * Visit satu chunk berikutnya dari antrian (tanpa memicu chunk load)
+         */
+        private void step() {
+            long chunkKey = chunks.getLong(cursor++);
+            WorldChunk chunk = world.getChunkManager().getWorldChunk(
+                    ChunkPos.getPackedX(chunkKey),
+                    ChunkPos.getPackedZ(chunkKey)
+            );
+
+            if (chunk != null && !chunk.isEmpty()) {
+                try {
+                    visitor.accept(chunk);
+                    chunksVisited++;
+                } catch (Exception e) {
+                    // Skip chunk yang error
+                }
+            }
+        }
+
+        private void reportProgress() {
+            int percent = getProgressPercent();
+            // Report tiap 25%
+            if (percent / 25 > lastReportedPercent / 25 && percent < 100) {
+                lastReportedPercent = percent;
+                UniversalSpawnerMod.LOGGER.info("   [{}] Progress: {}% ({}/{} chunks)",
+                        label, percent, cursor, chunks.size());
+                if (progressListener != null) {
+                    progressListener.accept(percent);
+                }
+            }
+        }
+
+        private void complete() {
+            UniversalSpawnerMod.LOGGER.info("✓ [{}] {} chunk(s) visited in {} ms",
+                    label, chunksVisited, (System.nanoTime() - startNanos) / 1_000_000);
+            if (progressListener != null) {
+                progressListener.accept(100);
+            }
+            future.complete(null);
+        }
+    }
+
+    /**
+     * Submit scan job - visitor dipanggil per loaded chunk, future di-complete di server thread
+     */
+    public static CompletableFuture<Void> submit(ServerWorld world, String label, LongList chunks,
+                                                 Consumer<WorldChunk> visitor,
+                                                 IntConsumer progressListener) {
+        ScanJob job = new ScanJob(world, label, chunks, visitor, progressListener);
+        JOBS.add(job);
+        UniversalSpawnerMod.LOGGER.info("🔍 [{}] Queued {} chunk(s) in {} (budget: {} µs/tick)",
+                label, chunks.size(), world.getRegistryKey().getValue(), ModConfig.getScanBudgetMicros());
+        return job.future;
+    }
+
+    /**
+     * END_SERVER_TICK: proses chunk sampai budget tick ini habis
+     */
+    public static void tick(MinecraftServer server) {
+        if (JOBS.isEmpty()) return;
+
+        long deadline = System.nanoTime() + ModConfig.getScanBudgetMicros() * 1_000L;
+        boolean progressed = false;
+
+        while (!JOBS.isEmpty()) {
+            ScanJob job = JOBS.peek();
+
+            // Minimal satu chunk per tick supaya job selalu maju
+            while (!job.isDone() && (!progressed || System.nanoTime() < deadline)) {
+                job.step();
+                progressed = true;
+            }
+
+            if (!job.isDone()) {
+                job.reportProgress();
+                return; // Budget habis, lanjut tick berikutnya
+            }
+
+            JOBS.poll();
+            job.complete();
+
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+    }
+
+    public static boolean isBusy() {
+        return !JOBS.isEmpty();
+    }
+
+    /**
+     * Batalkan semua job (server stop)
+     */
+    public static void clear() {
+        ScanJob job;
+        while ((job = JOBS.poll()) != null) {
+            job.future.cancel(false);
+        }
+    }
+}
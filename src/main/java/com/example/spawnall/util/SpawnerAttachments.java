@@ -0,0 +1,52 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.minecraft.block.entity.MobSpawnerBlockEntity;
+import net.minecraft.util.Identifier;
+
+/**
+ * Data yang disimpan LANGSUNG di MobSpawnerBlockEntity (ikut tersimpan bersama chunk)
+ * Spawner tahu sendiri config apa yang terakhir di-apply: fingerprint cocok = tidak perlu
+ * di-apply ulang, termasuk setelah restart / chunk di-load ulang.
+ */
+public class SpawnerAttachments {
+
+    /**
+     * Config yang terakhir di-apply ke spawner ini
+     * @param generation config generation saat di-apply (info/debug - counter reset tiap restart)
+     * @param fingerprint SpawnerNbtTemplates.fingerprint (mode + parameter + entity ID)
+     */
+    public record AppliedConfig(int generation, int fingerprint) {
+        public static final Codec<AppliedConfig> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                Codec.INT.fieldOf("generation").forGetter(AppliedConfig::generation),
+                Codec.INT.fieldOf("fingerprint").forGetter(AppliedConfig::fingerprint)
+        ).apply(instance, AppliedConfig::new));
+    }
+
+    public static final AttachmentType<AppliedConfig> APPLIED_CONFIG = AttachmentRegistry.<AppliedConfig>builder()
+            .persistent(AppliedConfig.CODEC)
+            .buildAndRegister(Identifier.of(UniversalSpawnerMod.MOD_ID, "applied_config"));
+
+    /**
+     * Load class (register attachment type) - dipanggil dari onInitialize
+     */
+    public static void register() {
+        UniversalSpawnerMod.LOGGER.info("✓ Spawner attachment registered: {}", APPLIED_CONFIG.identifier());
+    }
+
+    /**
+     * @return true kalau spawner sudah dikonfigurasi persis dengan fingerprint ini
+     */
+    public static boolean isApplied(MobSpawnerBlockEntity spawnerEntity, int fingerprint) {
+        AppliedConfig applied = spawnerEntity.getAttached(APPLIED_CONFIG);
+        return applied != null && applied.fingerprint() == fingerprint;
+    }
+
+    public static void setApplied(MobSpawnerBlockEntity spawnerEntity, int generation, int fingerprint) {
+        spawnerEntity.setAttached(APPLIED_CONFIG, new AppliedConfig(generation, fingerprint));
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import com.example.spawnall.config.ModConfig;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.MobSpawnerBlockEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incremental spawner index - di-feed dari chunk load/unload events
+ * Setiap chunk di-inspect TEPAT SEKALI per load, tidak perlu bulk scan lagi.
+ * Saat inspect, entry registry lama diverifikasi terhadap isi chunk dan chunk yang
+ * masih "pending generation N" sekalian di-reconcile.
+ *
+ * Semua method dipanggil dari server thread (chunk events + world tick).
+ */
+public class SpawnerIndex {
+
+    private static final Map<RegistryKey<World>, WorldState> WORLDS = new HashMap<>();
+
+    /**
+     * State per dimension: chunk yang sudah di-inspect + antrian chunk baru
+     */
+    private static class WorldState {
+        final LongSet indexedChunks = new LongOpenHashSet();
+        final LongSet queuedChunks = new LongOpenHashSet();
+        final LongArrayFIFOQueue pending = new LongArrayFIFOQueue();
+    }
+
+    private static WorldState state(ServerWorld world) {
+        return WORLDS.computeIfAbsent(world.getRegistryKey(), key -> new WorldState());
+    }
+
+    /**
+     * CHUNK_LOAD: antrikan chunk untuk di-inspect di world tick berikutnya
+     * (tidak menyentuh block entity di tengah proses loading chunk)
+     */
+    public static void onChunkLoad(ServerWorld world, WorldChunk chunk) {
+        WorldState state = state(world);
+        long chunkKey = chunk.getPos().toLong();
+
+        if (state.indexedChunks.contains(chunkKey) || !state.queuedChunks.add(chunkKey)) {
+            return;
+        }
+        state.pending.enqueue(chunkKey);
+    }
+
+    /**
+     * BLOCK_ENTITY_LOAD: bandingkan config yang tersimpan di spawner dengan config sekarang
+     * Cocok = tidak ada kerja sama sekali. Beda = chunk ditandai pending dan di-reconcile
+     * di world tick (tidak menyentuh block entity di tengah proses loading chunk).
+     */
+    public static void onSpawnerLoad(ServerWorld world, MobSpawnerBlockEntity spawnerEntity) {
+        BlockPos pos = spawnerEntity.getPos();
+        String entityId = SpawnerRegistry.get(world.getRegistryKey(), pos);
+        if (entityId == null) {
+            return; // Belum terdaftar - ditemukan dan dikonfigurasi saat chunk di-inspect
+        }
+
+        int fingerprint = SpawnerNbtTemplates.fingerprint(UniversalSpawnerMod.isModEnabled(), entityId);
+        if (!SpawnerAttachments.isApplied(spawnerEntity, fingerprint)) {
+            SpawnerRegistry.markPending(world.getRegistryKey(), pos, SpawnerUpdater.getGeneration());
+        }
+    }
+
+    /**
+     * CHUNK_UNLOAD: lupakan chunk supaya load berikutnya di-inspect ulang
+     */
+    public static void onChunkUnload(ServerWorld world, WorldChunk chunk) {
+        WorldState state = WORLDS.get(world.getRegistryKey());
+        if (state == null) return;
+
+        long chunkKey = chunk.getPos().toLong();
+        state.indexedChunks.remove(chunkKey);
+        // Entry di pending queue di-skip saat drain karena sudah tidak ada di queuedChunks
+        state.queuedChunks.remove(chunkKey);
+    }
+
+    /**
+     * END_WORLD_TICK: inspect chunk yang baru di-load sampai budget scan habis
+     * (teleport / world generation tidak bikin tick spike - sisa antrian lanjut tick berikutnya)
+     */
+    public static void tick(ServerWorld world) {
+        WorldState state = WORLDS.get(world.getRegistryKey());
+        if (state == null || state.pending.isEmpty()) return;
+
+        long deadline = System.nanoTime() + ModConfig.getScanBudgetMicros() * 1_000L;
+
+        int chunksInspected = 0;
+        int newSpawners = 0;
+        int reconciled = 0;
+        int stale = 0;
+
+        // Minimal satu chunk per tick supaya antrian selalu maju
+        while (!state.pending.isEmpty() && (chunksInspected == 0 || System.nanoTime() < deadline)) {
+            long chunkKey = state.pending.dequeueLong();
+            if (!state.queuedChunks.remove(chunkKey)) {
+                continue; // Sudah di-unload sebelum sempat di-inspect
+            }
+
+            // Hanya ambil chunk yang sudah loaded - tidak pernah memicu chunk load
+            WorldChunk chunk = world.getChunkManager().getWorldChunk(
+                    ChunkPos.getPackedX(chunkKey),
+                    ChunkPos.getPackedZ(chunkKey)
+            );
+            if (chunk == null) {
+                continue;
+            }
+
+            state.indexedChunks.add(chunkKey);
+            chunksInspected++;
+
+            Map<BlockPos, String> found = SpawnerScanner.scanChunk(world, chunk);
+
+            // Entry lama (index yang disimpan / region file) dicocokkan dengan isi chunk
+            stale += verifyChunk(world, chunkKey, found);
+
+            if (!found.isEmpty()) {
+                newSpawners += UniversalSpawnerMod.registerFoundSpawners(world, found);
+            }
+
+            // Apply config update yang tertunda saat chunk ini belum loaded
+            reconciled += SpawnerUpdater.reconcileChunk(world, chunkKey);
+        }
+
+        if (newSpawners > 0) {
+            UniversalSpawnerMod.LOGGER.info("✓ Indexed {} new spawner(s) from {} loaded chunk(s) in {}",
+                    newSpawners, chunksInspected, world.getRegistryKey().getValue());
+        }
+        if (stale > 0) {
+            UniversalSpawnerMod.LOGGER.info("🗑 Removed {} stale indexed spawner(s) in {}",
+                    stale, world.getRegistryKey().getValue());
+        }
+        if (reconciled > 0) {
+            UniversalSpawnerMod.LOGGER.info("♻ Reconciled {} pending spawner(s) in {}",
+                    reconciled, world.getRegistryKey().getValue());
+        }
+    }
+
+    /**
+     * Cocokkan registry dengan isi chunk yang baru di-load:
+     * spawner yang sudah hilang dihapus, entity type yang berubah di-update (pending)
+     * @return jumlah entry yang dihapus
+     */
+    private static int verifyChunk(ServerWorld world, long chunkKey, Map<BlockPos, String> found) {
+        RegistryKey<World> dimension = world.getRegistryKey();
+        int removed = 0;
+
+        for (Map.Entry<BlockPos, String> entry : SpawnerRegistry.getChunk(dimension, chunkKey).entrySet()) {
+            BlockPos pos = entry.getKey();
+            String actual = found.get(pos);
+
+            if (actual == null) {
+                if (!world.getBlockState(pos).isOf(Blocks.SPAWNER)) {
+                    SpawnerRegistry.remove(dimension, pos);
+                    removed++;
+                }
+            } else if (!actual.equals(entry.getValue())) {
+                SpawnerRegistry.put(dimension, pos, actual);
+                SpawnerRegistry.markPending(dimension, pos, SpawnerUpdater.getGeneration());
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Reset semua state (server stop)
+     */
+    public static void clear() {
+        WORLDS.clear();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.spawnall.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Format file index spawner offline (spawnall-index.bin) - TANPA dependency Minecraft
+ *
+ * Layout (gzip):
+ *   int    MAGIC, int VERSION
+ *   int    jumlah entity ID, lalu UTF per entity ID (string table)
+ *   int    jumlah dimension
+ *   per dimension: UTF dimension ID, int jumlah spawner,
+ *                  per spawner: long packed position + varint index entity ID
+ */
+public final class SpawnerIndexFile {
+
+    public static final String FILE_NAME = "spawnall-index.bin";
+
+    private static final int MAGIC = 0x53504149; // "SPAI"
+    private static final int VERSION = 1;
+
+    // Batas count dari file - file corrupt / asing ditolak dengan IOException, bukan OOM
+    private static final int MAX_ENTITY_IDS = 65_536;
+    private static final int MAX_DIMENSIONS = 1_024;
+    private static final int MAX_SPAWNERS_PER_DIMENSION = 1 << 24;
+    private static final int INITIAL_SPAWNER_CAPACITY = 4_096;
+
+    // Packing sama dengan BlockPos.asLong (x/z 26 bit, y 12 bit)
+    private static final int BITS_XZ = 26;
+    private static final int BITS_Y = 12;
+    private static final long MASK_XZ = (1L << BITS_XZ) - 1L;
+    private static final long MASK_Y = (1L << BITS_Y) - 1L;
+    private static final int SHIFT_Z = BITS_Y;
+    private static final int SHIFT_X = BITS_Y + BITS_XZ;
+
+    private SpawnerIndexFile() {
+    }
+
+    /**
+     * Tulis index (atomic: temp file lalu rename)
+     */
+    public static void write(Path file, Map<String, List<RegionFileReader.FoundSpawner>> byDimension) throws IOException {
+        Map<String, Integer> entityIds = new LinkedHashMap<>();
+        for (List<RegionFileReader.FoundSpawner> spawners : byDimension.values()) {
+            for (RegionFileReader.FoundSpawner spawner : spawners) {
+                entityIds.putIfAbsent(spawner.entityId(), entityIds.size());
+            }
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(entityIds.size());
+            for (String entityId : entityIds.keySet()) {
+                out.writeUTF(entityId);
+            }
+
+            out.writeInt(byDimension.size());
+            for (Map.Entry<String, List<RegionFileReader.FoundSpawner>> entry : byDimension.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (RegionFileReader.FoundSpawner spawner : entry.getValue()) {
+                    out.writeLong(pack(spawner.x(), spawner.y(), spawner.z()));
+                    writeVarInt(out, entityIds.get(spawner.entityId()));
+                }
+            }
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Baca index: dimension ID -> spawners
+     */
+    public static Map<String, List<RegionFileReader.FoundSpawner>> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a spawner index file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported spawner index version: " + version);
+            }
+
+            String[] entityIds = new String[readCount(in, MAX_ENTITY_IDS, "entity ID")];
+            for (int i = 0; i < entityIds.length; i++) {
+                entityIds[i] = in.readUTF();
+            }
+
+            int dimensions = readCount(in, MAX_DIMENSIONS, "dimension");
+            Map<String, List<RegionFileReader.FoundSpawner>> byDimension = new HashMap<>();
+            for (int d = 0; d < dimensions; d++) {
+                String dimension = in.readUTF();
+                int count = readCount(in, MAX_SPAWNERS_PER_DIMENSION, "spawner");
+                // Kapasitas awal dibatasi: list tumbuh sesuai data yang benar-benar ada
+                List<RegionFileReader.FoundSpawner> spawners = new ArrayList<>(Math.min(count, INITIAL_SPAWNER_CAPACITY));
+
+                for (int i = 0; i < count; i++) {
+                    long packed = in.readLong();
+                    int entityIndex = readVarInt(in);
+                    if (entityIndex < 0 || entityIndex >= entityIds.length) {
+                        throw new IOException("Invalid entity ID index: " + entityIndex);
+                    }
+                    String entityId = entityIds[entityIndex];
+                    spawners.add(new RegionFileReader.FoundSpawner(
+                            unpackX(packed), unpackY(packed), unpackZ(packed), entityId));
+                }
+                byDimension.put(dimension, spawners);
+            }
+            return byDimension;
+        }
+    }
+
+    private static int readCount(DataInputStream in, int max, String what) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > max) {
+            throw new IOException("Invalid " + what + " count: " + count);
+        }
+        return count;
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((x & MASK_XZ) << SHIFT_X) | ((z & MASK_XZ) << SHIFT_Z) | (y & MASK_Y);
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed << (64 - SHIFT_X - BITS_XZ) >> (64 - BITS_XZ));
+    }
+
+    private static int unpackY(long packed) {
+        return (int) (packed << (64 - BITS_Y) >> (64 - BITS_Y));
+    }
+
+    private static int unpackZ(long packed) {
+        return (int) (packed << (64 - SHIFT_Z - BITS_XZ) >> (64 - BITS_XZ));
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+            if (shift > 35) {
+                throw new IOException("VarInt too big");
+            }
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
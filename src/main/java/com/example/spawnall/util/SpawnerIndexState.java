@@ -0,0 +1,181 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.PersistentState;
+import net.minecraft.world.World;
+
+/**
+ * Spawner index per world yang DISIMPAN di data/spawnall_index.dat
+ * Restart server tidak perlu scan / region indexing ulang: isi registry dari sesi
+ * sebelumnya di-load saat world di-load, ditandai pending, lalu diverifikasi terhadap
+ * isi chunk (SpawnerIndex) dan di-reconcile saat chunk-nya di-load.
+ *
+ * Layout NBT (compact, semua array primitif):
+ *   Version int, RegionIndexed boolean
+ *   Types   list string       (entity ID table)
+ *   Chunks  long[]            (ChunkPos.toLong)
+ *   Counts  int[]             (jumlah spawner per chunk, urutan sama dengan Chunks)
+ *   Locals  int[]             (SpawnerRegistry.packLocal)
+ *   TypeIds int[]             (index ke Types, urutan sama dengan Locals)
+ *
+ * Isi diambil langsung dari SpawnerRegistry saat world di-save (hanya kalau berubah).
+ */
+public class SpawnerIndexState extends PersistentState {
+
+    public static final String ID = "spawnall_index";
+
+    private static final int VERSION = 1;
+
+    private final RegistryKey<World> dimension;
+
+    // Region files world ini sudah pernah di-index sampai selesai
+    private boolean regionIndexed = false;
+
+    private SpawnerIndexState(RegistryKey<World> dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * State world ini - di-load dari disk saat pertama kali dipanggil (sekalian isi registry)
+     */
+    public static SpawnerIndexState get(ServerWorld world) {
+        RegistryKey<World> dimension = world.getRegistryKey();
+        return world.getPersistentStateManager().getOrCreate(new PersistentState.Type<>(
+                () -> new SpawnerIndexState(dimension),
+                (nbt, registries) -> fromNbt(dimension, nbt),
+                null
+        ), ID);
+    }
+
+    public boolean isRegionIndexed() {
+        return regionIndexed;
+    }
+
+    public void markRegionIndexed() {
+        if (!regionIndexed) {
+            regionIndexed = true;
+            markDirty();
+        }
+    }
+
+    @Override
+    public boolean isDirty() {
+        return super.isDirty() || SpawnerRegistry.isDirty(dimension);
+    }
+
+    // =====================================================
+    // LOAD
+    // =====================================================
+
+    private static SpawnerIndexState fromNbt(RegistryKey<World> dimension, NbtCompound nbt) {
+        SpawnerIndexState state = new SpawnerIndexState(dimension);
+
+        int version = nbt.getInt("Version");
+        if (version != VERSION) {
+            UniversalSpawnerMod.LOGGER.warn("⚠ Spawner index for {} has version {} (expected {}), rebuilding",
+                    dimension.getValue(), version, VERSION);
+            return state;
+        }
+
+        NbtList typeList = nbt.getList("Types", NbtElement.STRING_TYPE);
+        long[] chunks = nbt.getLongArray("Chunks");
+        int[] counts = nbt.getIntArray("Counts");
+        int[] locals = nbt.getIntArray("Locals");
+        int[] typeIds = nbt.getIntArray("TypeIds");
+
+        if (chunks.length != counts.length || locals.length != typeIds.length) {
+            UniversalSpawnerMod.LOGGER.warn("⚠ Spawner index for {} is corrupted, rebuilding", dimension.getValue());
+            return state;
+        }
+
+        String[] types = new String[typeList.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = typeList.getString(i);
+        }
+
+        // Spawner dari sesi sebelumnya: pending sampai chunk-nya di-load (verify + reconcile)
+        int generation = SpawnerUpdater.getGeneration();
+        int loaded = 0;
+        int cursor = 0;
+
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            for (int i = 0; i < counts[chunk] && cursor < locals.length; i++, cursor++) {
+                int type = typeIds[cursor];
+                if (type < 0 || type >= types.length) {
+                    continue;
+                }
+
+                BlockPos pos = SpawnerRegistry.unpackLocal(chunks[chunk], locals[cursor]);
+                if (SpawnerRegistry.add(dimension, pos, types[type])) {
+                    SpawnerRegistry.markPending(dimension, pos, generation);
+                    loaded++;
+                }
+            }
+        }
+
+        // Isi registry sama dengan file - tidak perlu ditulis ulang
+        SpawnerRegistry.markSaved(dimension);
+        state.regionIndexed = nbt.getBoolean("RegionIndexed");
+
+        UniversalSpawnerMod.LOGGER.info("📂 Spawner index: {} spawner(s) in {} chunk(s) loaded for {}",
+                loaded, chunks.length, dimension.getValue());
+        return state;
+    }
+
+    // =====================================================
+    // SAVE
+    // =====================================================
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup registries) {
+        LongList chunks = SpawnerRegistry.getChunks(dimension);
+        IntArrayList counts = new IntArrayList(chunks.size());
+        IntArrayList locals = new IntArrayList();
+        IntArrayList typeIds = new IntArrayList();
+
+        NbtList typeList = new NbtList();
+        Object2IntMap<String> typeIndex = new Object2IntOpenHashMap<>();
+        typeIndex.defaultReturnValue(-1);
+
+        for (int i = 0; i < chunks.size(); i++) {
+            int before = locals.size();
+            SpawnerRegistry.forEachInChunk(dimension, chunks.getLong(i), (pos, entityId) -> {
+                int type = typeIndex.getInt(entityId);
+                if (type < 0) {
+                    type = typeList.size();
+                    typeList.add(NbtString.of(entityId));
+                    typeIndex.put(entityId, type);
+                }
+                locals.add(SpawnerRegistry.packLocal(pos));
+                typeIds.add(type);
+            });
+            counts.add(locals.size() - before);
+        }
+
+        nbt.putInt("Version", VERSION);
+        nbt.putBoolean("RegionIndexed", regionIndexed);
+        nbt.put("Types", typeList);
+        nbt.putLongArray("Chunks", chunks.toLongArray());
+        nbt.putIntArray("Counts", counts.toIntArray());
+        nbt.putIntArray("Locals", locals.toIntArray());
+        nbt.putIntArray("TypeIds", typeIds.toIntArray());
+
+        SpawnerRegistry.markSaved(dimension);
+
+        UniversalSpawnerMod.LOGGER.debug("💾 Spawner index saved for {}: {} spawner(s) in {} chunk(s)",
+                dimension.getValue(), locals.size(), chunks.size());
+        return nbt;
+    }
+}
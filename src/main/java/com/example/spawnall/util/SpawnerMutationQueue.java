@@ -0,0 +1,134 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Antrian mutasi registry / spawner dari thread lain (MPSC, lock-free)
+ * Worker (region indexer) hanya submit; semua mutasi di-apply di
+ * END_WORLD_TICK world yang bersangkutan, maksimal MAX_MUTATIONS_PER_TICK per tick.
+ * Registry dan block entity jadi hanya ditulis dari server thread - tanpa lock.
+ *
+ * submit*() boleh dipanggil dari thread mana saja, drain() hanya dari server thread.
+ */
+public class SpawnerMutationQueue {
+
+    // Batas mutasi per world per tick (sisa lanjut tick berikutnya)
+    private static final int MAX_MUTATIONS_PER_TICK = 1024;
+
+    private static final Map<RegistryKey<World>, ConcurrentLinkedQueue<Mutation>> QUEUES = new ConcurrentHashMap<>();
+
+    /**
+     * Satu mutasi - diproses FIFO per world
+     */
+    private sealed interface Mutation permits Register, Task {
+    }
+
+    /**
+     * Register spawner dari region file (chunk belum tentu loaded)
+     */
+    private record Register(BlockPos pos, String entityId) implements Mutation {
+    }
+
+    /**
+     * Jalankan action di server thread setelah semua mutasi sebelumnya di-apply
+     */
+    private record Task(Runnable action) implements Mutation {
+    }
+
+    private static ConcurrentLinkedQueue<Mutation> queue(ServerWorld world) {
+        return QUEUES.computeIfAbsent(world.getRegistryKey(), key -> new ConcurrentLinkedQueue<>());
+    }
+
+    // =====================================================
+    // PRODUCERS (thread mana saja)
+    // =====================================================
+
+    /**
+     * Spawner dari region indexer: register + tandai pending (configure saat chunk loaded)
+     */
+    public static void submitIndexed(ServerWorld world, Map<BlockPos, String> spawners) {
+        ConcurrentLinkedQueue<Mutation> queue = queue(world);
+        spawners.forEach((pos, entityId) -> queue.add(new Register(pos.toImmutable(), entityId)));
+    }
+
+    /**
+     * Jalankan action di world tick, SETELAH semua mutasi yang sudah di-submit
+     * @return future yang di-complete di server thread
+     */
+    public static <T> CompletableFuture<T> submitTask(ServerWorld world, Supplier<T> action) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        queue(world).add(new Task(() -> {
+            try {
+                future.complete(action.get());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }));
+        return future;
+    }
+
+    // =====================================================
+    // CONSUMER (server thread)
+    // =====================================================
+
+    /**
+     * END_WORLD_TICK: apply mutasi world ini dalam batch terbatas
+     */
+    public static void drain(ServerWorld world) {
+        ConcurrentLinkedQueue<Mutation> queue = QUEUES.get(world.getRegistryKey());
+        if (queue == null || queue.isEmpty()) return;
+
+        // Register berurutan di-batch supaya pending reconcile per chunk cukup sekali
+        Map<BlockPos, String> indexed = new HashMap<>();
+        int applied = 0;
+
+        Mutation mutation;
+        while (applied < MAX_MUTATIONS_PER_TICK && (mutation = queue.poll()) != null) {
+            applied++;
+
+            if (mutation instanceof Register register) {
+                indexed.put(register.pos(), register.entityId());
+            } else if (mutation instanceof Task task) {
+                // Urutan FIFO: register sebelum task harus sudah masuk registry
+                flush(world, indexed);
+                try {
+                    task.action().run();
+                } catch (Exception e) {
+                    UniversalSpawnerMod.LOGGER.error("Queued spawner task failed in {}: {}",
+                            world.getRegistryKey().getValue(), e.getMessage());
+                }
+            }
+        }
+        flush(world, indexed);
+
+        if (applied == MAX_MUTATIONS_PER_TICK && !queue.isEmpty()) {
+            UniversalSpawnerMod.LOGGER.debug("⏳ Spawner mutation batch full in {}, continuing next tick",
+                    world.getRegistryKey().getValue());
+        }
+    }
+
+    private static void flush(ServerWorld world, Map<BlockPos, String> indexed) {
+        if (!indexed.isEmpty()) {
+            UniversalSpawnerMod.registerIndexedSpawners(world, indexed);
+            indexed.clear();
+        }
+    }
+
+    /**
+     * Buang semua mutasi yang belum di-apply (server stop)
+     */
+    public static void clear() {
+        QUEUES.clear();
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import com.example.spawnall.config.ModConfig;
+import net.minecraft.block.spawner.MobSpawnerEntry;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtOps;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Template NBT spawner per mode (CUSTOM / VANILLA), di-compile SEKALI per config version
+ *
+ * Hasil akhir per entity ID juga di-cache, jadi apply ke ribuan spawner tidak
+ * membangun ulang SpawnData / SpawnPotentials / custom_spawn_rules per spawner.
+ * Compound yang dikembalikan di-share: JANGAN dimodifikasi (MobSpawnerLogic.readNbt
+ * hanya membaca, dan codec entity NBT meng-copy compound-nya sendiri).
+ *
+ * Selain NBT, SpawnData juga di-decode sekali ke MobSpawnerEntry untuk direct apply.
+ */
+public class SpawnerNbtTemplates {
+
+    /**
+     * Parameter spawner satu mode
+     */
+    public record Parameters(int delay, int minSpawnDelay, int maxSpawnDelay, int spawnCount,
+                             int maxNearbyEntities, int requiredPlayerRange, int spawnRange) {
+    }
+
+    /**
+     * Hasil compile per entity ID: NBT lengkap + SpawnData yang sudah di-decode (null kalau gagal)
+     */
+    private record Compiled(NbtCompound nbt, MobSpawnerEntry spawnEntry) {
+    }
+
+    /**
+     * Template satu mode: parameter spawner + spawn rules (tanpa entity ID)
+     */
+    private record Template(int configVersion, int fingerprint, Parameters parameters, NbtCompound parametersNbt,
+                            NbtCompound customSpawnRules, Map<String, Compiled> byEntity) {
+    }
+
+    private static final Template VANILLA = compileVanilla();
+
+    private static volatile Template custom;
+
+    /**
+     * Spawner NBT lengkap untuk mode + entity ID (shared, read-only)
+     */
+    public static NbtCompound get(boolean customMode, String entityId) {
+        return compiled(customMode, entityId).nbt();
+    }
+
+    /**
+     * SpawnData yang sudah di-decode (shared - entity NBT-nya JANGAN dimodifikasi)
+     * @return null kalau SpawnData tidak bisa di-decode
+     */
+    public static MobSpawnerEntry getSpawnEntry(boolean customMode, String entityId) {
+        return compiled(customMode, entityId).spawnEntry();
+    }
+
+    public static Parameters getParameters(boolean customMode) {
+        return template(customMode).parameters();
+    }
+
+    /**
+     * Fingerprint config yang akan di-apply: mode + hash parameter + entity ID (tidak pernah 0)
+     * Sama = spawner sudah dikonfigurasi persis seperti ini, apply bisa di-skip.
+     * Disimpan di block entity (SpawnerAttachments), jadi harus stabil antar restart.
+     */
+    public static int fingerprint(boolean customMode, String entityId) {
+        int fingerprint = 31 * template(customMode).fingerprint() + entityId.hashCode();
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static Compiled compiled(boolean customMode, String entityId) {
+        Template template = template(customMode);
+        return template.byEntity().computeIfAbsent(entityId, id -> build(template, id));
+    }
+
+    private static Template template(boolean customMode) {
+        if (!customMode) {
+            return VANILLA;
+        }
+
+        ModConfig.Snapshot config = ModConfig.snapshot();
+        Template template = custom;
+        if (template == null || template.configVersion() != config.version()) {
+            template = compileCustom(config);
+            custom = template;
+        }
+        return template;
+    }
+
+    // =====================================================
+    // COMPILE
+    // =====================================================
+
+    private static Template compileCustom(ModConfig.Snapshot config) {
+        NbtCompound customSpawnRules = new NbtCompound();
+
+        NbtCompound blockLightLimit = new NbtCompound();
+        blockLightLimit.putInt("min_inclusive", 0);
+        blockLightLimit.putInt("max_inclusive", 15);
+        customSpawnRules.put("block_light_limit", blockLightLimit);
+
+        NbtCompound skyLightLimit = new NbtCompound();
+        skyLightLimit.putInt("min_inclusive", 0);
+        skyLightLimit.putInt("max_inclusive", 15);
+        customSpawnRules.put("sky_light_limit", skyLightLimit);
+
+        // CUSTOM PARAMETERS (dari satu snapshot config - selalu konsisten)
+        int minDelay = config.minSpawnDelay();
+        int maxDelay = config.maxSpawnDelay();
+        int spawnCount = config.spawnCount();
+        int maxNearby = config.maxNearbyEntities();
+        int playerRange = config.playerRange();
+        int spawnRange = config.spawnRange();
+
+        Parameters parameters = new Parameters(minDelay, minDelay, maxDelay, spawnCount, maxNearby, playerRange, spawnRange);
+
+        UniversalSpawnerMod.LOGGER.debug("⚙ CUSTOM template (config v{}): {}-{}s delay, {} mobs, {} range",
+                config.version(), minDelay / 20.0f, maxDelay / 20.0f, spawnCount, playerRange);
+
+        return new Template(config.version(), fingerprint(true, parameters), parameters, toNbt(parameters),
+                customSpawnRules, new ConcurrentHashMap<>());
+    }
+
+    private static Template compileVanilla() {
+        // VANILLA PARAMETERS: 10-40s delay, 4 mobs, 16 range (tanpa custom rules)
+        Parameters parameters = new Parameters(20, 200, 800, 4, 6, 16, 4);
+        return new Template(0, fingerprint(false, parameters), parameters, toNbt(parameters),
+                null, new ConcurrentHashMap<>());
+    }
+
+    // Objects.hash (bukan record hashCode) - hasilnya terdefinisi, sama di setiap JVM
+    private static int fingerprint(boolean customMode, Parameters parameters) {
+        return Objects.hash(customMode, parameters.delay(), parameters.minSpawnDelay(), parameters.maxSpawnDelay(),
+                parameters.spawnCount(), parameters.maxNearbyEntities(), parameters.requiredPlayerRange(),
+                parameters.spawnRange());
+    }
+
+    private static NbtCompound toNbt(Parameters parameters) {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putShort("Delay", (short) parameters.delay());
+        nbt.putShort("MinSpawnDelay", (short) parameters.minSpawnDelay());
+        nbt.putShort("MaxSpawnDelay", (short) parameters.maxSpawnDelay());
+        nbt.putShort("SpawnCount", (short) parameters.spawnCount());
+        nbt.putShort("MaxNearbyEntities", (short) parameters.maxNearbyEntities());
+        nbt.putShort("RequiredPlayerRange", (short) parameters.requiredPlayerRange());
+        nbt.putShort("SpawnRange", (short) parameters.spawnRange());
+        return nbt;
+    }
+
+    /**
+     * Template + entity ID -> spawner NBT + decoded SpawnData (sekali per entity type per template)
+     */
+    private static Compiled build(Template template, String entityId) {
+        NbtCompound entityNbt = new NbtCompound();
+        entityNbt.putString("id", entityId);
+
+        // SpawnData
+        NbtCompound spawnData = new NbtCompound();
+        spawnData.put("entity", entityNbt);
+        if (template.customSpawnRules() != null) {
+            spawnData.put("custom_spawn_rules", template.customSpawnRules());
+        }
+
+        // SpawnPotentials (satu entry, data sama dengan SpawnData)
+        NbtCompound potential = new NbtCompound();
+        potential.putInt("weight", 1);
+        potential.put("data", spawnData);
+
+        NbtList potentials = new NbtList();
+        potentials.add(potential);
+
+        NbtCompound spawnerNbt = template.parametersNbt().copy();
+        spawnerNbt.put("SpawnPotentials", potentials);
+        spawnerNbt.put("SpawnData", spawnData);
+
+        // Decode sekali - sama dengan yang dilakukan MobSpawnerLogic.readNbt per spawner
+        MobSpawnerEntry spawnEntry = MobSpawnerEntry.CODEC.parse(NbtOps.INSTANCE, spawnData)
+                .resultOrPartial(error -> UniversalSpawnerMod.LOGGER.warn("Invalid SpawnData for {}: {}", entityId, error))
+                .orElse(null);
+
+        return new Compiled(spawnerNbt, spawnEntry);
+    }
+}
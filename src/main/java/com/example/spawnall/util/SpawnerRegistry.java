@@ -0,0 +1,286 @@
+package com.example.spawnall.util;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Registry spawner per dimension, di-bucket per chunk
+ *
+ * dimension -> packed chunk (ChunkPos.toLong) -> packed local pos -> entity type index
+ * Entity ID di-intern sekali ke tabel global, jadi satu entry cuma 2 int di Int2IntOpenHashMap.
+ *
+ * Semua method (kecuali size) dipanggil dari server thread.
+ */
+public class SpawnerRegistry {
+
+    // pendingGeneration kalau chunk tidak menunggu reconcile
+    public static final int NOT_PENDING = -1;
+
+    private static final Map<RegistryKey<World>, Dimension> DIMENSIONS = new HashMap<>();
+
+    // Entity type intern table (index -> ID dan sebaliknya)
+    private static final List<String> TYPE_IDS = new ArrayList<>();
+    private static final Object2IntMap<String> TYPE_INDEX = new Object2IntOpenHashMap<>();
+
+    // Total entry semua dimension - boleh dibaca dari thread mana saja (client UI)
+    private static final AtomicInteger SIZE = new AtomicInteger();
+
+    static {
+        TYPE_INDEX.defaultReturnValue(-1);
+    }
+
+    /**
+     * Spawner dalam satu chunk
+     */
+    private static class ChunkBucket {
+        // Biasanya 1-2 spawner per chunk - kapasitas kecil, tumbuh kalau perlu
+        final Int2IntOpenHashMap spawners = new Int2IntOpenHashMap(2);
+        // Config generation yang belum di-apply (chunk belum loaded), reconcile saat chunk di-load
+        int pendingGeneration = NOT_PENDING;
+
+        ChunkBucket() {
+            spawners.defaultReturnValue(-1);
+        }
+    }
+
+    private static class Dimension {
+        final Long2ObjectOpenHashMap<ChunkBucket> chunks = new Long2ObjectOpenHashMap<>();
+        int size = 0;
+        // Isi berubah sejak terakhir disimpan (SpawnerIndexState)
+        boolean dirty = false;
+    }
+
+    // =====================================================
+    // PACKING
+    // =====================================================
+
+    /**
+     * Local pos dalam chunk: y (signed, 24 bit) | z (4 bit) | x (4 bit)
+     */
+    static int packLocal(BlockPos pos) {
+        return (pos.getY() << 8) | ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+    }
+
+    static BlockPos unpackLocal(long chunkKey, int local) {
+        return new BlockPos(
+                (ChunkPos.getPackedX(chunkKey) << 4) | (local & 15),
+                local >> 8,
+                (ChunkPos.getPackedZ(chunkKey) << 4) | ((local >> 4) & 15)
+        );
+    }
+
+    static long chunkKey(BlockPos pos) {
+        return ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    private static int intern(String entityId) {
+        int index = TYPE_INDEX.getInt(entityId);
+        if (index < 0) {
+            index = TYPE_IDS.size();
+            TYPE_IDS.add(entityId);
+            TYPE_INDEX.put(entityId, index);
+        }
+        return index;
+    }
+
+    // =====================================================
+    // MUTATION
+    // =====================================================
+
+    /**
+     * Register spawner kalau belum ada
+     * @return true kalau spawner baru
+     */
+    public static boolean add(RegistryKey<World> dimension, BlockPos pos, String entityId) {
+        Dimension dim = DIMENSIONS.computeIfAbsent(dimension, key -> new Dimension());
+        ChunkBucket bucket = dim.chunks.computeIfAbsent(chunkKey(pos), key -> new ChunkBucket());
+
+        int local = packLocal(pos);
+        if (bucket.spawners.containsKey(local)) {
+            return false;
+        }
+
+        bucket.spawners.put(local, intern(entityId));
+        dim.size++;
+        dim.dirty = true;
+        SIZE.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Register / timpa entity type spawner
+     */
+    public static void put(RegistryKey<World> dimension, BlockPos pos, String entityId) {
+        if (!add(dimension, pos, entityId)) {
+            Dimension dim = DIMENSIONS.get(dimension);
+            int type = intern(entityId);
+            if (dim.chunks.get(chunkKey(pos)).spawners.put(packLocal(pos), type) != type) {
+                dim.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * @return entity ID spawner yang dihapus, atau null kalau tidak terdaftar
+     */
+    public static String remove(RegistryKey<World> dimension, BlockPos pos) {
+        Dimension dim = DIMENSIONS.get(dimension);
+        if (dim == null) return null;
+
+        long chunkKey = chunkKey(pos);
+        ChunkBucket bucket = dim.chunks.get(chunkKey);
+        if (bucket == null) return null;
+
+        int local = packLocal(pos);
+        int type = bucket.spawners.remove(local);
+        if (type < 0) {
+            return null;
+        }
+
+        if (bucket.spawners.isEmpty()) {
+            dim.chunks.remove(chunkKey);
+        }
+        dim.size--;
+        dim.dirty = true;
+        SIZE.decrementAndGet();
+        return TYPE_IDS.get(type);
+    }
+
+    // =====================================================
+    // PENDING (belum dikonfigurasi)
+    // =====================================================
+
+    /**
+     * Tandai chunk spawner ini sebagai "pending generation N"
+     */
+    public static void markPending(RegistryKey<World> dimension, BlockPos pos, int generation) {
+        ChunkBucket bucket = bucket(dimension, chunkKey(pos));
+        if (bucket != null) {
+            bucket.pendingGeneration = Math.max(bucket.pendingGeneration, generation);
+        }
+    }
+
+    /**
+     * Tandai semua spawner di chunk sebagai "pending generation N"
+     * @return jumlah spawner di chunk
+     */
+    public static int markChunkPending(RegistryKey<World> dimension, long chunkKey, int generation) {
+        ChunkBucket bucket = bucket(dimension, chunkKey);
+        if (bucket == null) return 0;
+
+        bucket.pendingGeneration = Math.max(bucket.pendingGeneration, generation);
+        return bucket.spawners.size();
+    }
+
+    /**
+     * Ambil dan reset pending generation chunk
+     * @return generation yang pending, atau NOT_PENDING
+     */
+    public static int takePending(RegistryKey<World> dimension, long chunkKey) {
+        ChunkBucket bucket = bucket(dimension, chunkKey);
+        if (bucket == null) return NOT_PENDING;
+
+        int generation = bucket.pendingGeneration;
+        bucket.pendingGeneration = NOT_PENDING;
+        return generation;
+    }
+
+    // =====================================================
+    // QUERY
+    // =====================================================
+
+    public static String get(RegistryKey<World> dimension, BlockPos pos) {
+        ChunkBucket bucket = bucket(dimension, chunkKey(pos));
+        if (bucket == null) return null;
+
+        int type = bucket.spawners.get(packLocal(pos));
+        return type < 0 ? null : TYPE_IDS.get(type);
+    }
+
+    /**
+     * Snapshot chunk yang punya spawner (aman untuk di-iterate sambil registry berubah)
+     */
+    public static LongList getChunks(RegistryKey<World> dimension) {
+        Dimension dim = DIMENSIONS.get(dimension);
+        return dim == null ? new LongArrayList() : new LongArrayList(dim.chunks.keySet());
+    }
+
+    /**
+     * Visit semua spawner dalam satu chunk (pos immutable, entity ID)
+     * Visitor tidak boleh mengubah chunk yang sama - pakai snapshot dari getChunk.
+     */
+    public static void forEachInChunk(RegistryKey<World> dimension, long chunkKey, BiConsumer<BlockPos, String> visitor) {
+        ChunkBucket bucket = bucket(dimension, chunkKey);
+        if (bucket == null) return;
+
+        for (Int2IntMap.Entry entry : bucket.spawners.int2IntEntrySet()) {
+            visitor.accept(unpackLocal(chunkKey, entry.getIntKey()), TYPE_IDS.get(entry.getIntValue()));
+        }
+    }
+
+    /**
+     * Copy semua spawner dalam satu chunk (boleh di-modify registry selama iterasi)
+     */
+    public static Map<BlockPos, String> getChunk(RegistryKey<World> dimension, long chunkKey) {
+        Map<BlockPos, String> spawners = new HashMap<>();
+        forEachInChunk(dimension, chunkKey, spawners::put);
+        return spawners;
+    }
+
+    /**
+     * Isi dimension berubah sejak terakhir disimpan
+     */
+    public static boolean isDirty(RegistryKey<World> dimension) {
+        Dimension dim = DIMENSIONS.get(dimension);
+        return dim != null && dim.dirty;
+    }
+
+    public static void markSaved(RegistryKey<World> dimension) {
+        Dimension dim = DIMENSIONS.get(dimension);
+        if (dim != null) {
+            dim.dirty = false;
+        }
+    }
+
+    public static int size(RegistryKey<World> dimension) {
+        Dimension dim = DIMENSIONS.get(dimension);
+        return dim == null ? 0 : dim.size;
+    }
+
+    /**
+     * Total semua dimension (thread-safe)
+     */
+    public static int size() {
+        return SIZE.get();
+    }
+
+    /**
+     * Reset semua state (server stop)
+     */
+    public static void clear() {
+        // Type table tidak di-clear: index tetap stabil selama proses hidup
+        DIMENSIONS.clear();
+        SIZE.set(0);
+    }
+
+    private static ChunkBucket bucket(RegistryKey<World> dimension, long chunkKey) {
+        Dimension dim = DIMENSIONS.get(dimension);
+        return dim == null ? null : dim.chunks.get(chunkKey);
+    }
+}
@@ -1,20 +1,32 @@
 package com.example.spawnall.util;
 
 import com.example.spawnall.UniversalSpawnerMod;
+import com.example.spawnall.config.ModConfig;
+import com.example.spawnall.mixin.MobSpawnerLogicAccessor;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.block.entity.MobSpawnerBlockEntity;
+import net.minecraft.block.spawner.MobSpawnerEntry;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.chunk.WorldChunk;
-import net.minecraft.world.chunk.ChunkStatus;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
 
 /**
  * IMPROVED Scanner untuk mendeteksi spawners
@@ -23,198 +35,212 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class SpawnerScanner {
 
+    // Statistik entity ID extraction (fast path accessor vs NBT fallback)
+    private static final AtomicLong FAST_PATH_HITS = new AtomicLong();
+    private static final AtomicLong NBT_FALLBACKS = new AtomicLong();
+
+    /**
+     * Strategi deteksi spawner per chunk
+     * BLOCK_SWEEP    = iterate block di section yang palette-nya berisi spawner
+     * BLOCK_ENTITIES = hanya cek block entity map milik chunk (tanpa baca block state)
+     */
+    public enum ScanStrategy {
+        BLOCK_SWEEP,
+        BLOCK_ENTITIES;
+
+        public static ScanStrategy fromConfig() {
+            String value = ModConfig.getScanStrategy();
+            for (ScanStrategy strategy : values()) {
+                if (strategy.name().equalsIgnoreCase(value)) {
+                    return strategy;
+                }
+            }
+            return BLOCK_ENTITIES;
+        }
+    }
+
+    // Radius layer terluas rescan (30 chunks = 480 blocks)
+    private static final int RESCAN_RADIUS = 30;
+
+    // Batas area scanregion: sama dengan area rescan (61x61 chunk)
+    public static final int MAX_REGION_SCAN_CHUNKS = (2 * RESCAN_RADIUS + 1) * (2 * RESCAN_RADIUS + 1);
+
     /**
      * Scan SEMUA loaded chunks di world - AGGRESSIVE MODE
-     * Method ini akan scan area yang lebih luas untuk mendeteksi spawner existing
+     * Method ini akan scan area yang lebih luas untuk mendeteksi spawner existing.
+     * Harus dipanggil dari server thread; chunk di-scan oleh ScanScheduler per tick.
+     * @param progressListener dipanggil dengan persen progress (boleh null)
      */
-    public static CompletableFuture<Map<BlockPos, String>> scanLoadedChunks(ServerWorld world) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<BlockPos, String> foundSpawners = new HashMap<>();
-            AtomicInteger chunksScanned = new AtomicInteger(0);
-            AtomicInteger spawnersFound = new AtomicInteger(0);
-
-            UniversalSpawnerMod.LOGGER.info("========================================");
-            UniversalSpawnerMod.LOGGER.info("ðŸ” SPAWNER SCANNER: Starting AGGRESSIVE scan...");
-            UniversalSpawnerMod.LOGGER.info("   World: {}", world.getRegistryKey().getValue());
-            UniversalSpawnerMod.LOGGER.info("   Method: Multi-layer comprehensive scan");
-            UniversalSpawnerMod.LOGGER.info("========================================");
+    public static CompletableFuture<Map<BlockPos, String>> scanLoadedChunks(ServerWorld world,
+                                                                             IntConsumer progressListener) {
+        LongList chunks = new LongArrayList();
+        // Layer saling overlap - setiap chunk cukup diproses sekali per scan
+        LongSet visited = new LongOpenHashSet();
+
+        UniversalSpawnerMod.LOGGER.info("========================================");
+        UniversalSpawnerMod.LOGGER.info("ðŸ” SPAWNER SCANNER: Starting AGGRESSIVE scan...");
+        UniversalSpawnerMod.LOGGER.info("   World: {}", world.getRegistryKey().getValue());
+        UniversalSpawnerMod.LOGGER.info("   Method: Multi-layer comprehensive scan (tick-budgeted)");
+        UniversalSpawnerMod.LOGGER.info("========================================");
+
+        // LAYER 1: Scan spawn chunks (ALWAYS loaded, highest priority)
+        BlockPos spawnPos = world.getSpawnPos();
+        UniversalSpawnerMod.LOGGER.info("   [Layer 1] Spawn area at {}", spawnPos);
+        int skipped = addChunkSquare(chunks, visited, new ChunkPos(spawnPos), 12);
+
+        // LAYER 2: Scan area around ALL online players
+        var players = world.getPlayers();
+        if (!players.isEmpty()) {
+            UniversalSpawnerMod.LOGGER.info("   [Layer 2] Around {} player(s)", players.size());
+            for (var player : players) {
+                skipped += addChunkSquare(chunks, visited, new ChunkPos(player.getBlockPos()), 12);
+            }
+        }
 
-            try {
-                // LAYER 1: Scan spawn chunks (ALWAYS loaded, highest priority)
-                BlockPos spawnPos = world.getSpawnPos();
-                UniversalSpawnerMod.LOGGER.info("   [Layer 1] Scanning spawn area at {}...", spawnPos);
-                scanAreaSync(world, spawnPos, 12, foundSpawners, spawnersFound, chunksScanned);
-
-                // LAYER 2: Scan area around ALL online players
-                var players = world.getPlayers();
-                if (!players.isEmpty()) {
-                    UniversalSpawnerMod.LOGGER.info("   [Layer 2] Scanning around {} player(s)...", players.size());
-                    for (var player : players) {
-                        BlockPos playerPos = player.getBlockPos();
-                        scanAreaSync(world, playerPos, 12, foundSpawners, spawnersFound, chunksScanned);
-                    }
-                }
+        // LAYER 3: Comprehensive scan dari spawn point (WIDER radius)
+        UniversalSpawnerMod.LOGGER.info("   [Layer 3] Wide-area from spawn");
+        skipped += addChunkSquare(chunks, visited, new ChunkPos(spawnPos), 25);
 
-                // LAYER 3: Comprehensive scan dari spawn point (WIDER radius)
-                UniversalSpawnerMod.LOGGER.info("   [Layer 3] Wide-area scan from spawn...");
-                scanWideAreaAroundSpawn(world, spawnPos, 25, foundSpawners, spawnersFound, chunksScanned);
+        // LAYER 4: Scan dengan radius SANGAT besar (30 chunks = 480 blocks)
+        UniversalSpawnerMod.LOGGER.info("   [Layer 4] All loaded chunks in {}-chunk radius", RESCAN_RADIUS);
+        skipped += addChunkSquare(chunks, visited, new ChunkPos(spawnPos), RESCAN_RADIUS);
 
-                // LAYER 4: Scan ALL currently loaded chunks (MOST COMPREHENSIVE)
-                UniversalSpawnerMod.LOGGER.info("   [Layer 4] Scanning ALL loaded chunks...");
-                scanAllActuallyLoadedChunks(world, foundSpawners, spawnersFound, chunksScanned);
+        UniversalSpawnerMod.LOGGER.info("   Unique chunks: {} (skipped {} overlapping)", chunks.size(), skipped);
 
-                UniversalSpawnerMod.LOGGER.info("========================================");
-                UniversalSpawnerMod.LOGGER.info("âœ… SPAWNER SCANNER: Scan complete!");
-                UniversalSpawnerMod.LOGGER.info("   Chunks scanned: {}", chunksScanned.get());
-                UniversalSpawnerMod.LOGGER.info("   Spawners found: {}", spawnersFound.get());
-                UniversalSpawnerMod.LOGGER.info("   Unique positions: {}", foundSpawners.size());
-                UniversalSpawnerMod.LOGGER.info("========================================");
+        return scanChunks(world, "Full scan", chunks, progressListener);
+    }
 
-            } catch (Exception e) {
-                UniversalSpawnerMod.LOGGER.error("âŒ SPAWNER SCANNER: Error during scan", e);
-            }
+    /**
+     * Scan daftar chunk lewat ScanScheduler (server thread, tick-budgeted)
+     * Semua kerja per spawner (baca block entity / entity ID) menyentuh state live,
+     * jadi tidak ada fase worker - future di-complete di server thread.
+     */
+    private static CompletableFuture<Map<BlockPos, String>> scanChunks(ServerWorld world, String label,
+                                                                       LongList chunks,
+                                                                       IntConsumer progressListener) {
+        Map<BlockPos, String> foundSpawners = new HashMap<>();
+        AtomicInteger spawnersFound = new AtomicInteger(0);
 
+        return ScanScheduler.submit(world, label, chunks,
+                chunk -> scanChunk(world, chunk, foundSpawners, spawnersFound),
+                progressListener
+        ).thenApply(ignored -> {
+            logScanResult(label, foundSpawners.size());
             return foundSpawners;
         });
     }
 
+    private static void logScanResult(String label, int spawners) {
+        UniversalSpawnerMod.LOGGER.info("âœ… [{}] Spawners found: {}", label, spawners);
+        UniversalSpawnerMod.LOGGER.debug("   Entity ID extraction: {} fast path, {} NBT fallback (total)",
+                FAST_PATH_HITS.get(), NBT_FALLBACKS.get());
+    }
+
     /**
-     * LAYER 3: Wide area scan around spawn (larger radius)
+     * Tambah semua chunk dalam kotak (2r+1)x(2r+1) ke antrian scan
+     * Chunk yang sudah ada di visited tidak ditambahkan lagi.
+     * @return jumlah chunk yang di-skip karena sudah masuk antrian
      */
-    private static void scanWideAreaAroundSpawn(ServerWorld world, BlockPos centerPos, int chunkRadius,
-                                                Map<BlockPos, String> foundSpawners,
-                                                AtomicInteger spawnersFound,
-                                                AtomicInteger chunksScanned) {
-        ChunkPos centerChunk = new ChunkPos(centerPos);
-
+    private static int addChunkSquare(LongList chunks, LongSet visited, ChunkPos center, int chunkRadius) {
+        int skipped = 0;
         for (int x = -chunkRadius; x <= chunkRadius; x++) {
             for (int z = -chunkRadius; z <= chunkRadius; z++) {
-                ChunkPos chunkPos = new ChunkPos(centerChunk.x + x, centerChunk.z + z);
-
-                try {
-                    WorldChunk chunk = (WorldChunk) world.getChunk(
-                            chunkPos.x,
-                            chunkPos.z,
-                            ChunkStatus.FULL,
-                            false
-                    );
-
-                    if (chunk != null && !chunk.isEmpty()) {
-                        scanChunk(world, chunk, foundSpawners, spawnersFound);
-                        chunksScanned.incrementAndGet();
-                    }
-                } catch (Exception e) {
-                    // Skip chunk yang error
+                long chunkKey = ChunkPos.toLong(center.x + x, center.z + z);
+                if (visited.add(chunkKey)) {
+                    chunks.add(chunkKey);
+                } else {
+                    skipped++;
                 }
             }
         }
+        return skipped;
     }
 
     /**
-     * LAYER 4: Scan ALL actually loaded chunks - MOST COMPREHENSIVE
+     * Scan satu chunk yang sudah loaded - PUBLIC API (dipakai SpawnerIndex)
      */
-    private static void scanAllActuallyLoadedChunks(ServerWorld world,
-                                                    Map<BlockPos, String> foundSpawners,
-                                                    AtomicInteger spawnersFound,
-                                                    AtomicInteger chunksScanned) {
-        try {
-            var chunkManager = world.getChunkManager();
-
-            // Get all loaded chunk positions
-            // Scan sangat luas untuk memastikan semua chunks tercover
-            int worldSpawnX = world.getSpawnPos().getX() >> 4;
-            int worldSpawnZ = world.getSpawnPos().getZ() >> 4;
-
-            // Scan dengan radius SANGAT besar (30 chunks = 480 blocks)
-            int scanRadius = 30;
-
-            for (int x = -scanRadius; x <= scanRadius; x++) {
-                for (int z = -scanRadius; z <= scanRadius; z++) {
-                    ChunkPos chunkPos = new ChunkPos(worldSpawnX + x, worldSpawnZ + z);
-
-                    try {
-                        WorldChunk chunk = (WorldChunk) world.getChunk(
-                                chunkPos.x,
-                                chunkPos.z,
-                                ChunkStatus.FULL,
-                                false
-                        );
-
-                        // PENTING: Cek chunk benar-benar loaded dan tidak empty
-                        if (chunk != null && !chunk.isEmpty()) {
-                            scanChunk(world, chunk, foundSpawners, spawnersFound);
-                            chunksScanned.incrementAndGet();
-                        }
-                    } catch (Exception e) {
-                        // Chunk tidak tersedia atau error, skip
-                    }
-                }
-            }
-
-            UniversalSpawnerMod.LOGGER.info("   [Layer 4] Scanned {} chunks in wide area", chunksScanned.get());
+    public static Map<BlockPos, String> scanChunk(ServerWorld world, WorldChunk chunk) {
+        Map<BlockPos, String> foundSpawners = new HashMap<>();
+        scanChunk(world, chunk, foundSpawners, new AtomicInteger(0));
+        return foundSpawners;
+    }
 
-        } catch (Exception e) {
-            UniversalSpawnerMod.LOGGER.debug("Could not complete wide area scan: {}", e.getMessage());
+    /**
+     * Scan single chunk untuk spawners sesuai strategi di config
+     */
+    static void scanChunk(ServerWorld world, WorldChunk chunk,
+                          Map<BlockPos, String> foundSpawners,
+                          AtomicInteger counter) {
+        if (ScanStrategy.fromConfig() == ScanStrategy.BLOCK_ENTITIES) {
+            scanChunkBlockEntities(world, chunk, foundSpawners, counter);
+        } else {
+            scanChunkSections(world, chunk, foundSpawners, counter);
         }
     }
 
     /**
-     * Scan area around position - RELIABLE
+     * BLOCK_ENTITIES: ambil spawner langsung dari block entity map chunk
+     * Cost tergantung jumlah block entity, bukan volume chunk
      */
-    private static void scanAreaSync(ServerWorld world, BlockPos centerPos, int chunkRadius,
-                                     Map<BlockPos, String> foundSpawners,
-                                     AtomicInteger spawnersFound,
-                                     AtomicInteger chunksScanned) {
-        ChunkPos centerChunk = new ChunkPos(centerPos);
+    private static void scanChunkBlockEntities(ServerWorld world, WorldChunk chunk,
+                                               Map<BlockPos, String> foundSpawners,
+                                               AtomicInteger counter) {
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            if (!(blockEntity instanceof MobSpawnerBlockEntity spawnerEntity) || blockEntity.isRemoved()) {
+                continue;
+            }
 
-        for (int x = -chunkRadius; x <= chunkRadius; x++) {
-            for (int z = -chunkRadius; z <= chunkRadius; z++) {
-                ChunkPos chunkPos = new ChunkPos(centerChunk.x + x, centerChunk.z + z);
-
-                try {
-                    WorldChunk chunk = (WorldChunk) world.getChunk(
-                            chunkPos.x,
-                            chunkPos.z,
-                            ChunkStatus.FULL,
-                            false
-                    );
-
-                    if (chunk != null && !chunk.isEmpty()) {
-                        scanChunk(world, chunk, foundSpawners, spawnersFound);
-                        chunksScanned.incrementAndGet();
+            try {
+                BlockPos pos = spawnerEntity.getPos();
+                String entityId = extractEntityIdEnhanced(spawnerEntity, world);
+
+                if (entityId != null && !entityId.isEmpty()) {
+                    // Avoid duplicates dari overlapping scans
+                    if (foundSpawners.putIfAbsent(pos.toImmutable(), entityId) == null) {
+                        counter.incrementAndGet();
+                        UniversalSpawnerMod.LOGGER.debug("   Found spawner at {}: {}",
+                                pos.toShortString(), entityId);
                     }
-                } catch (Exception e) {
-                    // Skip chunk yang tidak tersedia
                 }
+            } catch (Exception e) {
+                // Skip block entity jika error
             }
         }
     }
 
     /**
-     * Scan single chunk untuk spawners - ENHANCED
+     * BLOCK_SWEEP: Scan single chunk untuk spawners - SECTION/PALETTE AWARE
+     * Section yang kosong atau palette-nya tidak berisi spawner langsung di-skip,
+     * jadi hanya section yang benar-benar punya spawner yang di-iterate per block.
      */
-    private static void scanChunk(ServerWorld world, WorldChunk chunk,
-                                  Map<BlockPos, String> foundSpawners,
-                                  AtomicInteger counter) {
+    private static void scanChunkSections(ServerWorld world, WorldChunk chunk,
+                                          Map<BlockPos, String> foundSpawners,
+                                          AtomicInteger counter) {
         ChunkPos chunkPos = chunk.getPos();
+        ChunkSection[] sections = chunk.getSectionArray();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+
+        for (int index = 0; index < sections.length; index++) {
+            ChunkSection section = sections[index];
 
-        // Gunakan dimension type untuk mendapatkan height limits
-        int minY = world.getDimension().minY();
-        int maxY = world.getDimension().minY() + world.getDimension().height() - 1;
-
-        // Scan seluruh chunk (16x16 horizontal, full height vertical)
-        for (int x = 0; x < 16; x++) {
-            for (int z = 0; z < 16; z++) {
-                for (int y = minY; y <= maxY; y++) {
-                    BlockPos pos = new BlockPos(
-                            chunkPos.getStartX() + x,
-                            y,
-                            chunkPos.getStartZ() + z
-                    );
-
-                    try {
-                        // Check apakah block ini spawner
-                        if (chunk.getBlockState(pos).isOf(Blocks.SPAWNER)) {
+            // Skip section kosong / tanpa spawner di palette
+            if (!mayContainSpawner(section)) {
+                continue;
+            }
+
+            int baseY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(index));
+
+            // Urutan y -> z -> x mengikuti layout PalettedContainer
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (!section.getBlockState(x, y, z).isOf(Blocks.SPAWNER)) {
+                            continue;
+                        }
+
+                        pos.set(chunkPos.getStartX() + x, baseY + y, chunkPos.getStartZ() + z);
+
+                        try {
                             BlockEntity blockEntity = chunk.getBlockEntity(pos);
 
                             if (blockEntity instanceof MobSpawnerBlockEntity spawnerEntity) {
@@ -229,9 +255,9 @@ public class SpawnerScanner {
                                     }
                                 }
                             }
+                        } catch (Exception e) {
+                            // Skip block jika error
                         }
-                    } catch (Exception e) {
-                        // Skip block jika error
                     }
                 }
             }
@@ -239,65 +265,83 @@ public class SpawnerScanner {
     }
 
     /**
-     * Extract entity ID dengan multiple fallback methods
-     * ENHANCED untuk support spawner existing sebelum mod dipasang
+     * Cek cepat via palette: false kalau section pasti tidak punya spawner
      */
-    private static String extractEntityIdEnhanced(MobSpawnerBlockEntity spawnerEntity, ServerWorld world) {
-        try {
-            // Read NBT dari spawner
-            NbtCompound nbt = spawnerEntity.createNbt(world.getRegistryManager());
+    private static boolean mayContainSpawner(ChunkSection section) {
+        return section != null
+                && !section.isEmpty()
+                && section.hasAny(state -> state.isOf(Blocks.SPAWNER));
+    }
 
-            // Method 1: SpawnData (most common)
-            if (nbt.contains("SpawnData", 10)) { // 10 = Compound
-                NbtCompound spawnData = nbt.getCompound("SpawnData");
-                if (spawnData.contains("entity", 10)) {
-                    NbtCompound entity = spawnData.getCompound("entity");
-                    if (entity.contains("id", 8)) { // 8 = String
-                        String id = entity.getString("id");
-                        if (!id.isEmpty() && !id.equals("minecraft:")) {
-                            return id;
-                        }
+    /**
+     * Extract entity ID dari spawner NBT (SpawnData / SpawnPotentials)
+     * @return entity ID, atau null kalau NBT tidak punya ID yang valid
+     */
+    public static String extractEntityIdFromNbt(NbtCompound nbt) {
+        // Method 1: SpawnData (most common)
+        if (nbt.contains("SpawnData", 10)) { // 10 = Compound
+            NbtCompound spawnData = nbt.getCompound("SpawnData");
+            if (spawnData.contains("entity", 10)) {
+                NbtCompound entity = spawnData.getCompound("entity");
+                if (entity.contains("id", 8)) { // 8 = String
+                    String id = entity.getString("id");
+                    if (!id.isEmpty() && !id.equals("minecraft:")) {
+                        return id;
                     }
                 }
             }
+        }
 
-            // Method 2: SpawnPotentials (untuk spawner dengan multiple entities)
-            if (nbt.contains("SpawnPotentials", 9)) { // 9 = List
-                var potentials = nbt.getList("SpawnPotentials", 10);
-                if (!potentials.isEmpty()) {
-                    NbtCompound firstPotential = potentials.getCompound(0);
-                    if (firstPotential.contains("data", 10)) {
-                        NbtCompound data = firstPotential.getCompound("data");
-                        if (data.contains("entity", 10)) {
-                            NbtCompound entity = data.getCompound("entity");
-                            if (entity.contains("id", 8)) {
-                                String id = entity.getString("id");
-                                if (!id.isEmpty() && !id.equals("minecraft:")) {
-                                    return id;
-                                }
+        // Method 2: SpawnPotentials (untuk spawner dengan multiple entities)
+        if (nbt.contains("SpawnPotentials", 9)) { // 9 = List
+            var potentials = nbt.getList("SpawnPotentials", 10);
+            if (!potentials.isEmpty()) {
+                NbtCompound firstPotential = potentials.getCompound(0);
+                if (firstPotential.contains("data", 10)) {
+                    NbtCompound data = firstPotential.getCompound("data");
+                    if (data.contains("entity", 10)) {
+                        NbtCompound entity = data.getCompound("entity");
+                        if (entity.contains("id", 8)) {
+                            String id = entity.getString("id");
+                            if (!id.isEmpty() && !id.equals("minecraft:")) {
+                                return id;
                             }
                         }
                     }
                 }
             }
+        }
+
+        return null;
+    }
+
+    /**
+     * Extract entity ID dengan multiple fallback methods
+     * ENHANCED untuk support spawner existing sebelum mod dipasang
+     */
+    static String extractEntityIdEnhanced(MobSpawnerBlockEntity spawnerEntity, ServerWorld world) {
+        try {
+            // Method 0 (FAST PATH): baca spawn entry aktif langsung dari logic, tanpa NBT
+            String id = extractEntityIdDirect(spawnerEntity);
+            if (id != null) {
+                FAST_PATH_HITS.incrementAndGet();
+                return id;
+            }
+            NBT_FALLBACKS.incrementAndGet();
+
+            // Read NBT dari spawner (Method 1 + 2)
+            NbtCompound nbt = spawnerEntity.createNbt(world.getRegistryManager());
+            id = extractEntityIdFromNbt(nbt);
+            if (id != null) {
+                return id;
+            }
 
             // Method 3: Direct dari Spawner Logic (fallback untuk vanilla spawners)
             var logic = spawnerEntity.getLogic();
             if (logic != null) {
-                NbtCompound logicNbt = new NbtCompound();
-                logic.writeNbt(logicNbt);
-
-                if (logicNbt.contains("SpawnData", 10)) {
-                    NbtCompound spawnData = logicNbt.getCompound("SpawnData");
-                    if (spawnData.contains("entity", 10)) {
-                        NbtCompound entity = spawnData.getCompound("entity");
-                        if (entity.contains("id", 8)) {
-                            String id = entity.getString("id");
-                            if (!id.isEmpty() && !id.equals("minecraft:")) {
-                                return id;
-                            }
-                        }
-                    }
+                id = extractEntityIdFromNbt(logic.writeNbt(new NbtCompound()));
+                if (id != null) {
+                    return id;
                 }
             }
 
@@ -312,75 +356,126 @@ public class SpawnerScanner {
     }
 
     /**
-     * Scan area around player - PUBLIC API
+     * FAST PATH: entity ID dari spawn entry aktif via accessor (tanpa alokasi NBT)
+     * @return entity ID, atau null kalau spawn entry belum ada / tanpa ID
      */
-    public static CompletableFuture<Map<BlockPos, String>> scanAreaAroundPlayer(
-            ServerWorld world,
-            BlockPos playerPos,
-            int chunkRadius
-    ) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<BlockPos, String> foundSpawners = new HashMap<>();
-            AtomicInteger spawnersFound = new AtomicInteger(0);
-            AtomicInteger chunksScanned = new AtomicInteger(0);
-
-            UniversalSpawnerMod.LOGGER.info("ðŸ” Scanning area around position {}", playerPos);
+    private static String extractEntityIdDirect(MobSpawnerBlockEntity spawnerEntity) {
+        MobSpawnerEntry spawnEntry = ((MobSpawnerLogicAccessor) spawnerEntity.getLogic()).spawnall$getSpawnEntry();
+        if (spawnEntry == null) {
+            return null;
+        }
 
-            try {
-                scanAreaSync(world, playerPos, chunkRadius, foundSpawners, spawnersFound, chunksScanned);
-            } catch (Exception e) {
-                UniversalSpawnerMod.LOGGER.error("Error scanning area: {}", e.getMessage());
+        NbtCompound entity = spawnEntry.getNbt();
+        if (entity.contains("id", 8)) { // 8 = String
+            String id = entity.getString("id");
+            if (!id.isEmpty() && !id.equals("minecraft:")) {
+                return id;
             }
+        }
+        return null;
+    }
 
-            UniversalSpawnerMod.LOGGER.info("âœ… Area scan: {} spawners in {} chunks",
-                    spawnersFound.get(), chunksScanned.get());
+    /**
+     * Scan region besar secara tick-budgeted lewat ScanScheduler
+     * Hasil di-stream ke sink (server thread) begitu ditemukan; chunk yang tidak loaded di-skip.
+     * Box lebih dari MAX_REGION_SCAN_CHUNKS chunk ditolak (future gagal) sebelum list chunk dibuat.
+     */
+    public static CompletableFuture<Void> scanRegionAsync(ServerWorld world, BlockPos corner1, BlockPos corner2,
+                                                          BiConsumer<BlockPos, String> sink,
+                                                          IntConsumer progressListener) {
+        long chunkCount = regionChunkCount(corner1, corner2);
+        if (chunkCount > MAX_REGION_SCAN_CHUNKS) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Region covers " + chunkCount + " chunks (max " + MAX_REGION_SCAN_CHUNKS + ")"));
+        }
 
-            return foundSpawners;
-        });
+        BlockBox box = BlockBox.create(corner1, corner2);
+        LongList chunks = regionChunks(box);
+
+        UniversalSpawnerMod.LOGGER.info("ðŸ” Scanning region {} to {} ({} chunks)", corner1, corner2, chunks.size());
+        return ScanScheduler.submit(world, "Region scan", chunks,
+                chunk -> scanChunkInBox(world, chunk, box, sink),
+                progressListener
+        );
     }
 
     /**
-     * Scan specific region (untuk targeted scans)
+     * Jumlah chunk yang beririsan dengan box - dihitung tanpa membuat list
      */
-    public static Map<BlockPos, String> scanRegion(ServerWorld world, BlockPos corner1, BlockPos corner2) {
-        Map<BlockPos, String> foundSpawners = new HashMap<>();
-        AtomicInteger counter = new AtomicInteger(0);
+    public static long regionChunkCount(BlockPos corner1, BlockPos corner2) {
+        long sizeX = Math.abs((long) ChunkSectionPos.getSectionCoord(corner1.getX())
+                - ChunkSectionPos.getSectionCoord(corner2.getX())) + 1;
+        long sizeZ = Math.abs((long) ChunkSectionPos.getSectionCoord(corner1.getZ())
+                - ChunkSectionPos.getSectionCoord(corner2.getZ())) + 1;
+        return sizeX * sizeZ;
+    }
+
+    /**
+     * Semua chunk yang beririsan dengan box, urut per chunk
+     */
+    private static LongList regionChunks(BlockBox box) {
+        LongList chunks = new LongArrayList();
+        for (int chunkX = ChunkSectionPos.getSectionCoord(box.getMinX());
+             chunkX <= ChunkSectionPos.getSectionCoord(box.getMaxX()); chunkX++) {
+            for (int chunkZ = ChunkSectionPos.getSectionCoord(box.getMinZ());
+                 chunkZ <= ChunkSectionPos.getSectionCoord(box.getMaxZ()); chunkZ++) {
+                chunks.add(ChunkPos.toLong(chunkX, chunkZ));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Walk section per section di bagian chunk yang beririsan dengan box
+     * Section tanpa spawner di palette di-skip, satu BlockPos.Mutable dipakai ulang.
+     */
+    private static void scanChunkInBox(ServerWorld world, WorldChunk chunk, BlockBox box,
+                                       BiConsumer<BlockPos, String> sink) {
+        ChunkPos chunkPos = chunk.getPos();
+        ChunkSection[] sections = chunk.getSectionArray();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
 
-        int minX = Math.min(corner1.getX(), corner2.getX());
-        int maxX = Math.max(corner1.getX(), corner2.getX());
-        int minY = Math.min(corner1.getY(), corner2.getY());
-        int maxY = Math.max(corner1.getY(), corner2.getY());
-        int minZ = Math.min(corner1.getZ(), corner2.getZ());
-        int maxZ = Math.max(corner1.getZ(), corner2.getZ());
+        int minX = Math.max(box.getMinX(), chunkPos.getStartX());
+        int maxX = Math.min(box.getMaxX(), chunkPos.getEndX());
+        int minZ = Math.max(box.getMinZ(), chunkPos.getStartZ());
+        int maxZ = Math.min(box.getMaxZ(), chunkPos.getEndZ());
 
-        UniversalSpawnerMod.LOGGER.info("ðŸ” Scanning region {} to {}", corner1, corner2);
+        int firstSection = Math.max(0, chunk.getSectionIndex(box.getMinY()));
+        int lastSection = Math.min(sections.length - 1, chunk.getSectionIndex(box.getMaxY()));
+
+        for (int index = firstSection; index <= lastSection; index++) {
+            ChunkSection section = sections[index];
+            if (!mayContainSpawner(section)) {
+                continue;
+            }
+
+            int baseY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(index));
+            int minY = Math.max(box.getMinY(), baseY);
+            int maxY = Math.min(box.getMaxY(), baseY + 15);
 
-        for (int x = minX; x <= maxX; x++) {
             for (int y = minY; y <= maxY; y++) {
                 for (int z = minZ; z <= maxZ; z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
+                    for (int x = minX; x <= maxX; x++) {
+                        if (!section.getBlockState(x & 15, y & 15, z & 15).isOf(Blocks.SPAWNER)) {
+                            continue;
+                        }
 
-                    try {
-                        if (world.getBlockState(pos).isOf(Blocks.SPAWNER)) {
-                            BlockEntity blockEntity = world.getBlockEntity(pos);
+                        pos.set(x, y, z);
 
-                            if (blockEntity instanceof MobSpawnerBlockEntity spawnerEntity) {
+                        try {
+                            if (chunk.getBlockEntity(pos) instanceof MobSpawnerBlockEntity spawnerEntity) {
                                 String entityId = extractEntityIdEnhanced(spawnerEntity, world);
 
                                 if (entityId != null && !entityId.isEmpty()) {
-                                    foundSpawners.put(pos.toImmutable(), entityId);
-                                    counter.incrementAndGet();
+                                    sink.accept(pos.toImmutable(), entityId);
                                 }
                             }
+                        } catch (Exception e) {
+                            // Skip block jika error
                         }
-                    } catch (Exception e) {
-                        // Skip block jika error
                     }
                 }
             }
         }
-
-        UniversalSpawnerMod.LOGGER.info("âœ… Region scan: {} spawners found", counter.get());
-        return foundSpawners;
     }
-}
\ No newline at end of file
+}
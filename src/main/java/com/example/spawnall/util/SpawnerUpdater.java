@@ -0,0 +1,334 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+import com.example.spawnall.config.ModConfig;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.MobSpawnerBlockEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reconfigure semua spawner di registry secara INCREMENTAL, PER WORLD
+ * Setiap request menaikkan config generation global; setiap world punya job dan
+ * generation sendiri, jadi tiap dimension reconcile independen dan TEPAT SEKALI
+ * per generation. Request beruntun (spam toggle) digabung: world langsung lompat
+ * ke generation terbaru, job lama di world itu di-supersede.
+ *
+ * Job diproses per chunk di END_WORLD_TICK dengan budget waktu (updateBudgetMicros)
+ * yang di-share semua world dalam satu server tick, jadi tidak ada tick spike.
+ *
+ * Chunk yang tidak loaded TIDAK pernah di-load: ditandai "pending generation N"
+ * di registry dan di-reconcile saat chunk di-load (reconcileChunk).
+ *
+ * request() boleh dipanggil dari thread mana saja, tick() hanya dari server thread.
+ */
+public class SpawnerUpdater {
+
+    // Naik setiap ada request update
+    private static final AtomicInteger REQUESTED_GENERATION = new AtomicInteger();
+
+    // State per dimension (server thread)
+    private static final Map<RegistryKey<World>, WorldState> WORLDS = new HashMap<>();
+
+    // Budget yang sudah dipakai di server tick ini (di-share semua world)
+    private static int budgetTick = -1;
+    private static long budgetUsedNanos = 0;
+
+    // Hasil semua world untuk broadcast setelah semua job selesai
+    private static final Stats PASS_STATS = new Stats();
+
+    /**
+     * Counter hasil apply
+     */
+    private static class Stats {
+        int updated = 0;
+        int unchanged = 0;
+        int failed = 0;
+        int cleaned = 0;
+        // Total waktu configureSpawner untuk spawner yang benar-benar di-apply
+        long applyNanos = 0;
+
+        void add(Stats other) {
+            updated += other.updated;
+            unchanged += other.unchanged;
+            failed += other.failed;
+            cleaned += other.cleaned;
+            applyNanos += other.applyNanos;
+        }
+
+        void reset() {
+            updated = 0;
+            unchanged = 0;
+            failed = 0;
+            cleaned = 0;
+            applyNanos = 0;
+        }
+    }
+
+    /**
+     * Generation yang sudah di-start / selesai + job aktif satu dimension
+     */
+    private static class WorldState {
+        int startedGeneration;
+        int completedGeneration;
+        UpdateJob job;
+
+        // World baru mulai dari generation sekarang - spawner baru langsung dikonfigurasi saat register
+        WorldState(int generation) {
+            startedGeneration = generation;
+            completedGeneration = generation;
+        }
+    }
+
+    /**
+     * Satu pass update satu world: chunk list di-snapshot saat job dibuat
+     */
+    private static class UpdateJob {
+        final int generation;
+        final ServerWorld world;
+        final LongList chunks;
+        final long startNanos = System.nanoTime();
+
+        int cursor = 0;
+        int lastReportedPercent = 0;
+
+        final Stats stats = new Stats();
+        int deferred = 0;
+
+        UpdateJob(int generation, ServerWorld world) {
+            this.generation = generation;
+            this.world = world;
+            this.chunks = SpawnerRegistry.getChunks(world.getRegistryKey());
+        }
+
+        boolean isDone() {
+            return cursor >= chunks.size();
+        }
+
+        int getProgressPercent() {
+            return chunks.isEmpty() ? 100 : (int) (cursor * 100L / chunks.size());
+        }
+
+        /**
+         * Proses satu chunk berikutnya
+         */
+        void step() {
+            long chunkKey = chunks.getLong(cursor++);
+            RegistryKey<World> dimension = world.getRegistryKey();
+
+            // Jangan load chunk - configure nanti saat chunk di-load
+            if (!world.isChunkLoaded(ChunkPos.getPackedX(chunkKey), ChunkPos.getPackedZ(chunkKey))) {
+                deferred += SpawnerRegistry.markChunkPending(dimension, chunkKey, generation);
+                return;
+            }
+
+            SpawnerRegistry.takePending(dimension, chunkKey);
+            applyChunk(world, chunkKey, stats);
+        }
+
+        void reportProgress() {
+            int percent = getProgressPercent();
+            // Report tiap 25%
+            if (percent / 25 > lastReportedPercent / 25 && percent < 100) {
+                lastReportedPercent = percent;
+                UniversalSpawnerMod.LOGGER.info("   [Update #{}] {}: {}% ({}/{} chunks)",
+                        generation, world.getRegistryKey().getValue(), percent, cursor, chunks.size());
+            }
+        }
+    }
+
+    /**
+     * Apply config ke semua spawner terdaftar di satu chunk yang SUDAH loaded
+     */
+    private static void applyChunk(ServerWorld world, long chunkKey, Stats stats) {
+        RegistryKey<World> dimension = world.getRegistryKey();
+
+        for (Map.Entry<BlockPos, String> entry : SpawnerRegistry.getChunk(dimension, chunkKey).entrySet()) {
+            BlockPos pos = entry.getKey();
+
+            // Cek apakah spawner masih ada
+            if (world.getBlockState(pos).isOf(Blocks.SPAWNER)) {
+                if (world.getBlockEntity(pos) instanceof MobSpawnerBlockEntity spawnerEntity) {
+                    try {
+                        long startNanos = System.nanoTime();
+                        if (UniversalSpawnerMod.configureSpawner(world, pos, spawnerEntity, entry.getValue())) {
+                            stats.applyNanos += System.nanoTime() - startNanos;
+                            stats.updated++;
+                        } else {
+                            stats.unchanged++;
+                        }
+                    } catch (Exception e) {
+                        UniversalSpawnerMod.LOGGER.error("Failed to update spawner at {}: {}", pos, e.getMessage());
+                        stats.failed++;
+                    }
+                }
+            } else {
+                // Spawner tidak ada lagi, hapus dari registry
+                SpawnerRegistry.remove(dimension, pos);
+                stats.cleaned++;
+            }
+        }
+    }
+
+    /**
+     * Chunk baru di-load (server thread): apply config kalau chunk masih pending
+     * @return jumlah spawner yang di-update
+     */
+    public static int reconcileChunk(ServerWorld world, long chunkKey) {
+        int generation = SpawnerRegistry.takePending(world.getRegistryKey(), chunkKey);
+        if (generation == SpawnerRegistry.NOT_PENDING) {
+            return 0;
+        }
+
+        Stats stats = new Stats();
+        applyChunk(world, chunkKey, stats);
+
+        UniversalSpawnerMod.LOGGER.debug("♻ Reconciled chunk [{}, {}] in {} (pending generation {}): {} updated, {} cleaned",
+                ChunkPos.getPackedX(chunkKey), ChunkPos.getPackedZ(chunkKey), world.getRegistryKey().getValue(),
+                generation, stats.updated, stats.cleaned);
+        return stats.updated;
+    }
+
+    /**
+     * Generation config terakhir yang di-request
+     */
+    public static int getGeneration() {
+        return REQUESTED_GENERATION.get();
+    }
+
+    /**
+     * Request update semua spawner (thread-safe)
+     * @return generation dari request ini
+     */
+    public static int request() {
+        return REQUESTED_GENERATION.incrementAndGet();
+    }
+
+    /**
+     * END_WORLD_TICK: start job baru kalau world ini ketinggalan generation,
+     * lalu proses sampai budget server tick ini habis
+     */
+    public static void tick(ServerWorld world) {
+        int requested = REQUESTED_GENERATION.get();
+        WorldState state = WORLDS.computeIfAbsent(world.getRegistryKey(), key -> new WorldState(requested));
+
+        // Burst request digabung: langsung ke generation terbaru
+        if (requested != state.startedGeneration) {
+            start(world, state, requested);
+        }
+
+        UpdateJob job = state.job;
+        if (job == null) return;
+
+        MinecraftServer server = world.getServer();
+        if (server.getTicks() != budgetTick) {
+            budgetTick = server.getTicks();
+            budgetUsedNanos = 0;
+        }
+
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + Math.max(0, ModConfig.getUpdateBudgetMicros() * 1_000L - budgetUsedNanos);
+
+        // Minimal satu chunk per tick per world supaya job selalu maju
+        do {
+            if (job.isDone()) break;
+            job.step();
+        } while (System.nanoTime() < deadline);
+
+        budgetUsedNanos += System.nanoTime() - startNanos;
+
+        if (job.isDone()) {
+            state.job = null;
+            state.completedGeneration = job.generation;
+            complete(server, job);
+        } else {
+            job.reportProgress();
+        }
+    }
+
+    private static void start(ServerWorld world, WorldState state, int generation) {
+        if (state.job != null) {
+            UniversalSpawnerMod.LOGGER.info("⏭ [Update #{}] {} superseded by #{} at {}%",
+                    state.job.generation, world.getRegistryKey().getValue(), generation, state.job.getProgressPercent());
+        }
+
+        state.startedGeneration = generation;
+        UpdateJob job = new UpdateJob(generation, world);
+
+        // World tanpa spawner: generation ini langsung selesai
+        if (job.isDone()) {
+            state.job = null;
+            state.completedGeneration = generation;
+            return;
+        }
+        state.job = job;
+
+        String env = world.getServer().isSingleplayer() ? "SINGLEPLAYER" : "MULTIPLAYER";
+        UniversalSpawnerMod.LOGGER.info("========================================");
+        UniversalSpawnerMod.LOGGER.info("🔄 [Update #{}] Updating spawners in {} [{}]...",
+                generation, world.getRegistryKey().getValue(), env);
+        UniversalSpawnerMod.LOGGER.info("  Spawners: {}", SpawnerRegistry.size(world.getRegistryKey()));
+        UniversalSpawnerMod.LOGGER.info("  Last completed: #{} ({} request(s) since)",
+                state.completedGeneration, generation - state.completedGeneration);
+        UniversalSpawnerMod.LOGGER.info("  Chunks: {} (budget: {} µs/tick, shared)",
+                job.chunks.size(), ModConfig.getUpdateBudgetMicros());
+        UniversalSpawnerMod.LOGGER.info("  New mode: {}", UniversalSpawnerMod.isModEnabled() ? "CUSTOM" : "VANILLA");
+        UniversalSpawnerMod.LOGGER.info("========================================");
+    }
+
+    private static void complete(MinecraftServer server, UpdateJob job) {
+        UniversalSpawnerMod.LOGGER.info("========================================");
+        UniversalSpawnerMod.LOGGER.info("✓ [Update #{}] {} COMPLETE in {} ms:",
+                job.generation, job.world.getRegistryKey().getValue(), (System.nanoTime() - job.startNanos) / 1_000_000);
+        UniversalSpawnerMod.LOGGER.info("  Updated: {} (avg {} µs/spawner)", job.stats.updated,
+                job.stats.updated == 0 ? 0 : job.stats.applyNanos / 1_000 / job.stats.updated);
+        UniversalSpawnerMod.LOGGER.info("  Unchanged (skipped): {}", job.stats.unchanged);
+        UniversalSpawnerMod.LOGGER.info("  Failed: {}", job.stats.failed);
+        UniversalSpawnerMod.LOGGER.info("  Cleaned: {}", job.stats.cleaned);
+        UniversalSpawnerMod.LOGGER.info("  Deferred (unloaded): {}", job.deferred);
+        UniversalSpawnerMod.LOGGER.info("========================================");
+
+        PASS_STATS.add(job.stats);
+        if (isRunning()) return;
+
+        // Broadcast update sekali setelah semua world selesai (hanya di multiplayer)
+        if (!server.isSingleplayer() && PASS_STATS.updated > 0) {
+            server.getPlayerManager().broadcast(
+                    Text.literal("§6[Spawn All] §7Updated " + PASS_STATS.updated + " spawner(s) to " +
+                            (UniversalSpawnerMod.isModEnabled() ? "§aCUSTOM" : "§eVANILLA") + " §7mode"),
+                    false
+            );
+        }
+        PASS_STATS.reset();
+    }
+
+    /**
+     * Ada world yang masih punya job aktif
+     */
+    public static boolean isRunning() {
+        for (WorldState state : WORLDS.values()) {
+            if (state.job != null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Batalkan semua job (server stop) - request yang belum diproses ikut dibuang
+     */
+    public static void clear() {
+        WORLDS.clear();
+        PASS_STATS.reset();
+        budgetTick = -1;
+        budgetUsedNanos = 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.spawnall.util;
+
+import com.example.spawnall.UniversalSpawnerMod;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Delayed task berbasis TICK (pengganti Thread.sleep di server / render thread)
+ * Task disimpan di priority queue berdasarkan tick jatuh tempo; tick() hanya
+ * mengecek head queue, jadi task yang masih menunggu tidak makan biaya apa pun.
+ *
+ * schedule() boleh dipanggil dari thread mana saja, tick() hanya dari thread pemilik
+ * (SERVER: END_SERVER_TICK, CLIENT: END_CLIENT_TICK).
+ */
+public class TickScheduler {
+
+    public static final TickScheduler SERVER = new TickScheduler("server");
+    public static final TickScheduler CLIENT = new TickScheduler("client");
+
+    /**
+     * Satu task: jatuh tempo di dueTick, urutan schedule sebagai tie-breaker
+     */
+    private record Task(long dueTick, long sequence, Runnable action) implements Comparable<Task> {
+        @Override
+        public int compareTo(Task other) {
+            int byTick = Long.compare(dueTick, other.dueTick);
+            return byTick != 0 ? byTick : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Request dari thread lain, dipindah ke queue saat tick berikutnya
+     */
+    private record Request(int delayTicks, Runnable action) {
+    }
+
+    private final String name;
+    private final ConcurrentLinkedQueue<Request> incoming = new ConcurrentLinkedQueue<>();
+    private final PriorityQueue<Task> queue = new PriorityQueue<>();
+
+    private long currentTick = 0;
+    private long sequence = 0;
+
+    private TickScheduler(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Jalankan action setelah delayTicks tick (20 tick = 1 detik)
+     */
+    public void schedule(int delayTicks, Runnable action) {
+        incoming.add(new Request(Math.max(0, delayTicks), action));
+    }
+
+    /**
+     * Jalankan semua task yang sudah jatuh tempo
+     */
+    public void tick() {
+        currentTick++;
+
+        Request request;
+        while ((request = incoming.poll()) != null) {
+            queue.add(new Task(currentTick + request.delayTicks(), sequence++, request.action()));
+        }
+
+        while (!queue.isEmpty() && queue.peek().dueTick() <= currentTick) {
+            try {
+                queue.poll().action().run();
+            } catch (Exception e) {
+                UniversalSpawnerMod.LOGGER.error("Delayed {} task failed: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    public int size() {
+        return queue.size() + incoming.size();
+    }
+
+    /**
+     * Buang semua task yang belum jalan (server stop / disconnect)
+     */
+    public void clear() {
+        incoming.clear();
+        queue.clear();
+    }
+}